@@ -1,6 +1,7 @@
 package com.inventory;
 
 import com.inventory.controller.InventoryController;
+import com.inventory.util.ClassLogger;
 import com.inventory.util.Logger;
 
 /**
@@ -11,23 +12,24 @@ import com.inventory.util.Logger;
  * @since 2025-11-23
  */
 public class Main {
+    private static final ClassLogger logger = Logger.getLogger(Main.class);
     
     public static void main(String[] args) {
         try {
-            Logger.info("=".repeat(60));
-            Logger.info("Smart Inventory Management System - Starting Application");
-            Logger.info("Version: 1.0");
-            Logger.info("=".repeat(60));
+            logger.info("=".repeat(60));
+            logger.info("Smart Inventory Management System - Starting Application");
+            logger.info("Version: 1.0");
+            logger.info("=".repeat(60));
             
             // Create and start the controller
             InventoryController controller = new InventoryController();
             controller.start();
             
-            Logger.info("Application terminated successfully");
+            logger.info("Application terminated successfully");
             
         } catch (Exception e) {
             System.err.println("Critical error occurred: " + e.getMessage());
-            Logger.error("Critical application error", e);
+            logger.error("Critical application error", e);
             e.printStackTrace();
             System.exit(1);
         }
@@ -1,18 +1,25 @@
 package com.inventory.controller;
 
 import com.inventory.model.*;
+import com.inventory.dao.ProductDAO;
 import com.inventory.service.*;
 import com.inventory.exception.*;
+import com.inventory.util.ClassLogger;
 import com.inventory.util.Logger;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 
 /**
  * Main controller for Inventory Management System CLI interface
  */
 public class InventoryController {
+    private static final ClassLogger logger = Logger.getLogger(InventoryController.class);
+    private static final int PAGE_SIZE = 20;
     private Scanner scanner;
     private UserService userService;
     private InventoryService inventoryService;
@@ -20,6 +27,9 @@ public class InventoryController {
     private TransactionService transactionService;
     private AlertService alertService;
     private ReportService reportService;
+    private ImportService importService;
+    private ExportService exportService;
+    private TopSellerService topSellerService;
     private User currentUser;
     
     public InventoryController() {
@@ -30,6 +40,9 @@ public class InventoryController {
         this.transactionService = TransactionService.getInstance();
         this.alertService = AlertService.getInstance();
         this.reportService = ReportService.getInstance();
+        this.importService = ImportService.getInstance();
+        this.exportService = ExportService.getInstance();
+        this.topSellerService = TopSellerService.getInstance();
     }
     
     /**
@@ -82,7 +95,7 @@ public class InventoryController {
                 }
             } catch (Exception e) {
                 System.out.println("Error: " + e.getMessage());
-                Logger.error("Error in main menu", (Exception) e);
+                logger.error("Error in main menu", (Exception) e);
             }
         }
         
@@ -158,7 +171,8 @@ public class InventoryController {
             System.out.println("4. View All Products");
             System.out.println("5. Search Product");
             System.out.println("6. View Low Stock Products");
-            System.out.println("7. Back to Main Menu");
+            System.out.println("7. Import Products from CSV");
+            System.out.println("8. Back to Main Menu");
             
             int choice = getIntInput("Enter choice: ");
             
@@ -183,6 +197,9 @@ public class InventoryController {
                         viewLowStockProducts();
                         break;
                     case 7:
+                        importProducts();
+                        break;
+                    case 8:
                         back = true;
                         break;
                     default:
@@ -258,22 +275,31 @@ public class InventoryController {
     }
     
     private void viewAllProducts() throws Exception {
-        List<Product> products = inventoryService.getAllProducts();
+        System.out.print("\nSort by 1. ID or 2. Name [1]: ");
+        ProductDAO.SortOrder order = scanner.nextLine().trim().equals("2")
+                ? ProductDAO.SortOrder.NAME : ProductDAO.SortOrder.ID;
         
         System.out.println("\n--- ALL PRODUCTS ---");
         System.out.println(String.format("%-10s %-25s %-15s %-10s %-10s",
                 "ID", "Name", "Category", "Price", "Quantity"));
         System.out.println("-".repeat(70));
         
-        for (Product p : products) {
-            System.out.println(String.format("%-10s %-25s %-15s $%-9.2f %-10d",
-                    p.getProductId(),
-                    truncate(p.getName(), 25),
-                    truncate(p.getCategory(), 15),
-                    p.getPrice(),
-                    p.getQuantity()));
-        }
-        System.out.println("\nTotal Products: " + products.size());
+        int shown = 0;
+        String cursor = null;
+        do {
+            Page<Product> page = inventoryService.getProductPage(order, cursor, PAGE_SIZE);
+            for (Product p : page.getItems()) {
+                System.out.println(String.format("%-10s %-25s %-15s $%-9.2f %-10d",
+                        p.getProductId(),
+                        truncate(p.getName(), 25),
+                        truncate(p.getCategory(), 15),
+                        p.getPrice(),
+                        p.getQuantity()));
+            }
+            shown += page.getItems().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null && showNextPage());
+        System.out.println("\nShown " + shown + " of " + inventoryService.getProductCount() + " products");
     }
     
     private void searchProduct() throws Exception {
@@ -306,6 +332,26 @@ public class InventoryController {
         }
     }
     
+    private void importProducts() throws Exception {
+        System.out.println("\n--- IMPORT PRODUCTS FROM CSV ---");
+        System.out.println("Columns: name,category,price,quantity[,minStockLevel,supplierId,description]");
+        System.out.print("CSV file path: ");
+        String filename = scanner.nextLine().trim();
+        
+        ImportResult result = importService.importProducts(filename);
+        
+        System.out.println("\nRows read: " + result.getRowsRead());
+        System.out.println("Products imported: " + result.getImported());
+        System.out.println("Rows rejected: " + result.getErrorCount());
+        List<String> errors = result.getErrors();
+        for (int i = 0; i < Math.min(errors.size(), 20); i++) {
+            System.out.println("  " + errors.get(i));
+        }
+        if (result.getErrorCount() > 20) {
+            System.out.println("  ... and " + (result.getErrorCount() - 20) + " more");
+        }
+    }
+    
     /**
      * Supplier management menu
      */
@@ -317,7 +363,8 @@ public class InventoryController {
             System.out.println("2. View All Suppliers");
             System.out.println("3. Update Supplier");
             System.out.println("4. Delete Supplier");
-            System.out.println("5. Back to Main Menu");
+            System.out.println("5. View Supplier Products");
+            System.out.println("6. Back to Main Menu");
             
             int choice = getIntInput("Enter choice: ");
             
@@ -336,6 +383,9 @@ public class InventoryController {
                         deleteSupplier();
                         break;
                     case 5:
+                        viewSupplierProducts();
+                        break;
+                    case 6:
                         back = true;
                         break;
                     default:
@@ -422,6 +472,29 @@ public class InventoryController {
         }
     }
     
+    private void viewSupplierProducts() throws Exception {
+        System.out.print("\nEnter Supplier ID: ");
+        String supplierId = scanner.nextLine().trim();
+        
+        Supplier supplier = supplierService.getSupplierById(supplierId);
+        List<Product> products = inventoryService.getProductsBySupplier(supplierId);
+        
+        System.out.println("\n--- PRODUCTS FROM " + supplier.getName().toUpperCase() + " ---");
+        System.out.println(String.format("%-10s %-25s %-15s %-10s %-10s",
+                "ID", "Name", "Category", "Price", "Quantity"));
+        System.out.println("-".repeat(70));
+        
+        for (Product p : products) {
+            System.out.println(String.format("%-10s %-25s %-15s $%-9.2f %-10d",
+                    p.getProductId(),
+                    truncate(p.getName(), 25),
+                    truncate(p.getCategory(), 15),
+                    p.getPrice(),
+                    p.getQuantity()));
+        }
+        System.out.println("\nTotal Products: " + products.size());
+    }
+    
     /**
      * Transaction management menu
      */
@@ -504,22 +577,35 @@ public class InventoryController {
     }
     
     private void viewAllTransactions() throws Exception {
-        List<Transaction> transactions = transactionService.getAllTransactions();
-        
-        System.out.println("\n--- ALL TRANSACTIONS ---");
+        System.out.println("\n--- ALL TRANSACTIONS (newest first) ---");
         System.out.println(String.format("%-25s %-12s %-8s %-8s %-12s",
                 "Transaction ID", "Product", "Type", "Qty", "Amount"));
         System.out.println("-".repeat(70));
         
-        for (Transaction t : transactions) {
-            System.out.println(String.format("%-25s %-12s %-8s %-8d $%-11.2f",
-                    t.getTransactionId(),
-                    t.getProductId(),
-                    t.getType(),
-                    t.getQuantity(),
-                    t.getTotalAmount()));
-        }
-        System.out.println("\nTotal Transactions: " + transactions.size());
+        int shown = 0;
+        String cursor = null;
+        do {
+            Page<Transaction> page = transactionService.getTransactionPage(cursor, PAGE_SIZE, true);
+            for (Transaction t : page.getItems()) {
+                System.out.println(String.format("%-25s %-12s %-8s %-8d $%-11.2f",
+                        t.getTransactionId(),
+                        t.getProductId(),
+                        t.getType(),
+                        t.getQuantity(),
+                        t.getTotalAmount()));
+            }
+            shown += page.getItems().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null && showNextPage());
+        System.out.println("\nShown " + shown + " of " + transactionService.getTransactionCount() + " transactions");
+    }
+    
+    /**
+     * Ask whether to continue a paged listing
+     */
+    private boolean showNextPage() {
+        System.out.print("-- Press Enter for more, or q to stop: ");
+        return !scanner.nextLine().trim().equalsIgnoreCase("q");
     }
     
     private void viewSalesSummary() throws Exception {
@@ -544,7 +630,11 @@ public class InventoryController {
             System.out.println("3. Sales Report");
             System.out.println("4. Supplier Performance Report");
             System.out.println("5. Alert Summary Report");
-            System.out.println("6. Back to Main Menu");
+            System.out.println("6. Export Data (CSV/JSON Lines)");
+            System.out.println("7. Top Sellers");
+            System.out.println("8. Save All Reports");
+            System.out.println("9. Report Cache Statistics");
+            System.out.println("10. Back to Main Menu");
             
             int choice = getIntInput("Enter choice: ");
             
@@ -566,6 +656,18 @@ public class InventoryController {
                         displayAlertReport();
                         break;
                     case 6:
+                        exportData();
+                        break;
+                    case 7:
+                        displayTopSellers();
+                        break;
+                    case 8:
+                        saveAllReports();
+                        break;
+                    case 9:
+                        displayReportCacheStats();
+                        break;
+                    case 10:
                         back = true;
                         break;
                     default:
@@ -577,60 +679,115 @@ public class InventoryController {
         }
     }
     
-    private void displayInventoryReport() throws Exception {
-        String report = reportService.generateInventoryReport();
-        System.out.println("\n" + report);
-        
-        System.out.print("\nSave to file? (yes/no): ");
-        if (scanner.nextLine().trim().equalsIgnoreCase("yes")) {
-            String filename = "inventory_report_" + System.currentTimeMillis() + ".txt";
-            reportService.saveReportToFile(report, filename);
+    private void saveAllReports() throws Exception {
+        // Same data for every report; sales cover the last 30 days
+        Map<ReportService.ReportType, String> filenames =
+                reportService.saveAllReports(LocalDateTime.now().minusDays(30));
+        for (String filename : filenames.values()) {
             System.out.println("Report saved to reports/" + filename);
         }
     }
     
+    private void displayInventoryReport() throws Exception {
+        showReport("inventory_report_", reportService::writeInventoryReport);
+    }
+    
     private void displayLowStockReport() throws Exception {
-        String report = reportService.generateLowStockReport();
-        System.out.println("\n" + report);
-        
-        System.out.print("\nSave to file? (yes/no): ");
-        if (scanner.nextLine().trim().equalsIgnoreCase("yes")) {
-            String filename = "lowstock_report_" + System.currentTimeMillis() + ".txt";
-            reportService.saveReportToFile(report, filename);
-            System.out.println("Report saved to reports/" + filename);
-        }
+        showReport("lowstock_report_", reportService::writeLowStockReport);
     }
     
     private void displaySalesReport() throws Exception {
-        LocalDateTime end = LocalDateTime.now();
-        LocalDateTime start = end.minusDays(30); // Last 30 days
+        // Last 30 days, as whole days so repeat views can be served from the report cache
+        LocalDateTime start = LocalDate.now().minusDays(29).atStartOfDay();
+        LocalDateTime end = LocalDate.now().atTime(LocalTime.MAX);
         
-        String report = reportService.generateSalesReport(start, end);
-        System.out.println("\n" + report);
-        
-        System.out.print("\nSave to file? (yes/no): ");
-        if (scanner.nextLine().trim().equalsIgnoreCase("yes")) {
-            String filename = "sales_report_" + System.currentTimeMillis() + ".txt";
-            reportService.saveReportToFile(report, filename);
-            System.out.println("Report saved to reports/" + filename);
-        }
+        showReport("sales_report_", out -> reportService.writeSalesReport(start, end, out));
     }
     
     private void displaySupplierReport() throws Exception {
-        String report = reportService.generateSupplierReport();
-        System.out.println("\n" + report);
+        showReport("supplier_report_", reportService::writeSupplierReport);
+    }
+    
+    /**
+     * Stream a report to the console, then optionally to a file; the
+     * report is rendered again for the file rather than held in memory
+     */
+    private void showReport(String filePrefix, ReportService.ReportBody body) throws Exception {
+        System.out.println();
+        reportService.printReport(body);
         
         System.out.print("\nSave to file? (yes/no): ");
         if (scanner.nextLine().trim().equalsIgnoreCase("yes")) {
-            String filename = "supplier_report_" + System.currentTimeMillis() + ".txt";
-            reportService.saveReportToFile(report, filename);
+            String filename = filePrefix + System.currentTimeMillis() + ".txt";
+            reportService.writeReportToFile(filename, body);
             System.out.println("Report saved to reports/" + filename);
         }
     }
     
+    private void displayReportCacheStats() {
+        ReportCache cache = reportService.getCache();
+        System.out.println("\n--- REPORT CACHE ---");
+        System.out.println("Cached reports: " + cache.size());
+        System.out.println("Hits: " + cache.getHits() + ", Misses: " + cache.getMisses()
+                + String.format(" (hit rate %.1f%%)", cache.getHitRate() * 100));
+        System.out.println("Invalidated: " + cache.getInvalidations() + ", Evicted: " + cache.getEvictions());
+    }
+    
+    private void displayTopSellers() {
+        for (TopSellerService.Window window : TopSellerService.Window.values()) {
+            System.out.println("\n--- TOP SELLERS: " + window.name().replace('_', ' ') + " ---");
+            List<TopSeller> sellers = topSellerService.getTopSellers(window, 10);
+            if (sellers.isEmpty()) {
+                System.out.println("No sales.");
+                continue;
+            }
+            System.out.println(String.format("%-4s %-12s %-12s %-10s", "#", "Product", "Units", "+/-"));
+            System.out.println("-".repeat(40));
+            for (int i = 0; i < sellers.size(); i++) {
+                TopSeller seller = sellers.get(i);
+                System.out.println(String.format("%-4d %-12s %-12d %-10d",
+                        i + 1, seller.getProductId(), seller.getQuantity(), seller.getError()));
+            }
+        }
+    }
+    
     private void displayAlertReport() throws Exception {
-        String report = reportService.generateAlertReport();
-        System.out.println("\n" + report);
+        System.out.println();
+        reportService.printReport(reportService::writeAlertReport);
+    }
+    
+    private void exportData() throws Exception {
+        System.out.println("\n--- EXPORT DATA ---");
+        System.out.println("1. Transactions");
+        System.out.println("2. Products");
+        int what = getIntInput("Export: ");
+        if (what != 1 && what != 2) {
+            System.out.println("Invalid choice.");
+            return;
+        }
+        
+        System.out.print("Format (csv/jsonl) [csv]: ");
+        ExportService.ExportFormat format = scanner.nextLine().trim().equalsIgnoreCase("jsonl")
+                ? ExportService.ExportFormat.JSONL : ExportService.ExportFormat.CSV;
+        String extension = format == ExportService.ExportFormat.JSONL ? ".jsonl" : ".csv";
+        
+        long count;
+        String filename;
+        if (what == 1) {
+            System.out.print("From date (yyyy-MM-dd, or press Enter for all): ");
+            String from = scanner.nextLine().trim();
+            System.out.print("To date (yyyy-MM-dd, or press Enter for all): ");
+            String to = scanner.nextLine().trim();
+            LocalDateTime start = from.isEmpty() ? null : LocalDate.parse(from).atStartOfDay();
+            LocalDateTime end = to.isEmpty() ? null : LocalDate.parse(to).atTime(LocalTime.MAX);
+            
+            filename = "reports/transactions_" + System.currentTimeMillis() + extension;
+            count = exportService.exportTransactions(filename, format, start, end);
+        } else {
+            filename = "reports/products_" + System.currentTimeMillis() + extension;
+            count = exportService.exportProducts(filename, format);
+        }
+        System.out.println("Exported " + count + " records to " + filename);
     }
     
     /**
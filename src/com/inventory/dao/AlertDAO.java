@@ -1,14 +1,19 @@
 package com.inventory.dao;
 
 import com.inventory.model.Alert;
+import com.inventory.model.Page;
 import com.inventory.exception.InventoryException;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object interface for Alert operations
  */
 public interface AlertDAO {
     void save(Alert alert) throws InventoryException;
+    void saveAll(Collection<Alert> alerts) throws InventoryException;
     void update(Alert alert) throws InventoryException;
     void delete(String alertId) throws InventoryException;
     Alert findById(String alertId) throws InventoryException;
@@ -17,4 +22,26 @@ public interface AlertDAO {
     List<Alert> findByProductId(String productId) throws InventoryException;
     List<Alert> findByPriority(Alert.AlertPriority priority) throws InventoryException;
     boolean exists(String alertId) throws InventoryException;
+    
+    /**
+     * Get the alerts following a cursor (null for the first page) in order
+     * of creation; the page's cursor continues the listing
+     */
+    Page<Alert> findPage(String cursor, int limit, boolean newestFirst) throws InventoryException;
+    
+    /**
+     * Stream all records without copying them into a list
+     */
+    Stream<Alert> stream();
+    long count() throws InventoryException;
+    
+    /**
+     * Visit all records; the action returns false to stop early
+     */
+    void forEach(Predicate<Alert> action) throws InventoryException;
+    
+    /**
+     * Register a listener notified of changes to alerts
+     */
+    void addChangeListener(ChangeListener<Alert> listener);
 }
@@ -0,0 +1,20 @@
+package com.inventory.dao;
+
+import java.util.Collection;
+
+/**
+ * Notified by a DAO after records have been written.
+ * Called on the writing thread before the write returns, so listeners
+ * must be quick and must not call back into the DAO.
+ */
+public interface ChangeListener<T> {
+    /**
+     * Records were saved or updated
+     */
+    void saved(Collection<T> records);
+    
+    /**
+     * Records were deleted
+     */
+    void deleted(Collection<String> ids);
+}
@@ -1,20 +1,78 @@
 package com.inventory.dao;
 
+import com.inventory.model.Page;
 import com.inventory.model.Product;
 import com.inventory.exception.InventoryException;
+import java.util.Collection;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object interface for Product operations
  */
 public interface ProductDAO {
+    /**
+     * Orders available to paged listings
+     */
+    enum SortOrder {
+        ID, NAME
+    }
+    
     void save(Product product) throws InventoryException;
+    void saveAll(Collection<Product> products) throws InventoryException;
     void update(Product product) throws InventoryException;
+    void updateAll(Collection<Product> products) throws InventoryException;
     void delete(String productId) throws InventoryException;
     Product findById(String productId) throws InventoryException;
     List<Product> findAll() throws InventoryException;
     List<Product> findByCategory(String category) throws InventoryException;
+    List<Product> findBySupplierId(String supplierId) throws InventoryException;
     List<Product> findByName(String name) throws InventoryException;
     List<Product> findLowStockProducts() throws InventoryException;
+    List<Product> findOutOfStockProducts() throws InventoryException;
     boolean exists(String productId) throws InventoryException;
+    
+    /**
+     * Get the IDs of all products without reading the products themselves
+     */
+    List<String> findAllIds() throws InventoryException;
+    
+    /**
+     * Get the products following a cursor (null for the first page) in the
+     * given order, ignoring case; the page's cursor continues the listing
+     */
+    Page<Product> findPage(SortOrder order, String cursor, int limit) throws InventoryException;
+    
+    /**
+     * Get the value of all stock, kept current on every write
+     */
+    double getTotalValue() throws InventoryException;
+    
+    /**
+     * Get the value of a category's stock, ignoring case
+     */
+    double getTotalValue(String category) throws InventoryException;
+    
+    /**
+     * Get the value of every category's stock, by category name
+     */
+    SortedMap<String, Double> getValueByCategory() throws InventoryException;
+    
+    /**
+     * Stream all records without copying them into a list
+     */
+    Stream<Product> stream();
+    long count() throws InventoryException;
+    
+    /**
+     * Visit all records; the action returns false to stop early
+     */
+    void forEach(Predicate<Product> action) throws InventoryException;
+    
+    /**
+     * Register a listener notified of changes to products
+     */
+    void addChangeListener(ChangeListener<Product> listener);
 }
@@ -0,0 +1,58 @@
+package com.inventory.dao;
+
+import com.inventory.model.Transaction;
+import com.inventory.model.TransactionTotals;
+import com.inventory.exception.InventoryException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Data Access Object interface for per-product sales rollups: hourly and
+ * daily totals (count, quantity, revenue) maintained as sales are recorded
+ */
+public interface SalesRollupDAO {
+    /**
+     * Add sales to the rollups; transactions of other types are ignored
+     */
+    void record(Collection<Transaction> transactions) throws InventoryException;
+    
+    /**
+     * Replace the rollups of a day with those of the given transactions
+     */
+    void replaceDay(LocalDate day, Collection<Transaction> transactions) throws InventoryException;
+    
+    /**
+     * Get sales per product over an inclusive range of days
+     */
+    Map<String, TransactionTotals> getDailyTotals(LocalDate startDay, LocalDate endDay) throws InventoryException;
+    
+    /**
+     * Get sales per product over an inclusive range of hours
+     */
+    Map<String, TransactionTotals> getHourlyTotals(LocalDateTime startHour, LocalDateTime endHour)
+            throws InventoryException;
+    
+    /**
+     * Get the first hour still covered by hourly rollups; older hours are only kept as days
+     */
+    LocalDateTime getHourlyHorizon();
+    
+    /**
+     * Tell whether the rollups were built from the ledger; true even if
+     * the ledger held no sales
+     */
+    boolean isBuilt();
+    
+    /**
+     * Record that the rollups now cover the whole ledger
+     */
+    void markBuilt() throws InventoryException;
+    
+    /**
+     * Register a listener notified of each batch of sales added to the
+     * rollups, including those a replaced day is rebuilt from
+     */
+    void addChangeListener(ChangeListener<Transaction> listener);
+}
@@ -15,4 +15,9 @@ public interface SupplierDAO {
     List<Supplier> findAll() throws InventoryException;
     List<Supplier> findByName(String name) throws InventoryException;
     boolean exists(String supplierId) throws InventoryException;
+    
+    /**
+     * Register a listener notified of changes to suppliers
+     */
+    void addChangeListener(ChangeListener<Supplier> listener);
 }
@@ -1,8 +1,14 @@
 package com.inventory.dao;
 
+import com.inventory.model.Page;
 import com.inventory.model.Transaction;
+import com.inventory.model.TransactionTotals;
 import com.inventory.exception.InventoryException;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -10,10 +16,46 @@ import java.time.LocalDateTime;
  */
 public interface TransactionDAO {
     void save(Transaction transaction) throws InventoryException;
+    void saveAll(Collection<Transaction> transactions) throws InventoryException;
     Transaction findById(String transactionId) throws InventoryException;
     List<Transaction> findAll() throws InventoryException;
     List<Transaction> findByProductId(String productId) throws InventoryException;
     List<Transaction> findByDateRange(LocalDateTime start, LocalDateTime end) throws InventoryException;
     List<Transaction> findByType(Transaction.TransactionType type) throws InventoryException;
     boolean exists(String transactionId) throws InventoryException;
+    
+    /**
+     * Get the all-time totals of a transaction type
+     */
+    TransactionTotals getTotals(Transaction.TransactionType type) throws InventoryException;
+    
+    /**
+     * Get the totals of a transaction type over an inclusive range of whole days
+     */
+    TransactionTotals getTotals(Transaction.TransactionType type, LocalDate startDay, LocalDate endDay)
+            throws InventoryException;
+    
+    /**
+     * Get the transactions following a cursor (null for the first page) in
+     * date order; the page's cursor continues the listing
+     */
+    Page<Transaction> findPage(String cursor, int limit, boolean newestFirst) throws InventoryException;
+    
+    /**
+     * Stream all transactions partition by partition, oldest partition first;
+     * only a bounded number of partitions is held in memory at a time
+     */
+    Stream<Transaction> stream();
+    long count() throws InventoryException;
+    
+    /**
+     * Visit all transactions in date order; the action returns false to stop early
+     */
+    void forEach(Predicate<Transaction> action) throws InventoryException;
+    
+    /**
+     * Visit transactions in date order without materializing them; null
+     * bounds are open. The action returns false to stop early.
+     */
+    void forEach(LocalDateTime start, LocalDateTime end, Predicate<Transaction> action) throws InventoryException;
 }
@@ -0,0 +1,47 @@
+package com.inventory.dao.codec;
+
+import com.inventory.model.Alert;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static com.inventory.dao.codec.BinaryFormat.*;
+
+/**
+ * Binary codec for Alert records
+ */
+public class AlertCodec extends ModelCodec<Alert> {
+    private static final int VERSION = 1;
+    
+    public AlertCodec() {
+        super(Alert.class, VERSION);
+    }
+    
+    @Override
+    protected void encode(Alert a, DataOutputStream out) throws IOException {
+        writeString(out, a.getAlertId());
+        writeEnum(out, a.getType());
+        writeEnum(out, a.getPriority());
+        writeString(out, a.getProductId());
+        writeString(out, a.getMessage());
+        writeTimestamp(out, a.getCreatedDate());
+        out.writeBoolean(a.isResolved());
+        writeTimestamp(out, a.getResolvedDate());
+        writeString(out, a.getResolvedBy());
+    }
+    
+    @Override
+    protected Alert decode(DataInputStream in, int version) throws IOException {
+        Alert a = new Alert();
+        a.setAlertId(readString(in));
+        a.setType(readEnum(in, Alert.AlertType.class));
+        a.setPriority(readEnum(in, Alert.AlertPriority.class));
+        a.setProductId(readString(in));
+        a.setMessage(readString(in));
+        a.setCreatedDate(readTimestamp(in));
+        a.setResolved(in.readBoolean());
+        a.setResolvedDate(readTimestamp(in));
+        a.setResolvedBy(readString(in));
+        return a;
+    }
+}
@@ -0,0 +1,131 @@
+package com.inventory.dao.codec;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Primitive encodings shared by the binary record codecs.
+ * Integers are LEB128 varints (zig-zag for signed values), strings are
+ * length-prefixed UTF-8 and timestamps are epoch milliseconds. Nullable
+ * values reserve 0 for null and shift real values up by one.
+ */
+public final class BinaryFormat {
+    
+    private BinaryFormat() {
+    }
+    
+    /**
+     * Write an unsigned varint
+     */
+    public static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+    
+    /**
+     * Read an unsigned varint
+     */
+    public static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+    
+    public static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+    
+    public static int readVarInt(DataInputStream in) throws IOException {
+        return (int) readVarLong(in);
+    }
+    
+    /**
+     * Write a signed value as a zig-zag varint so small negatives stay short
+     */
+    public static void writeSignedVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarInt(out, (value << 1) ^ (value >> 31));
+    }
+    
+    public static int readSignedVarInt(DataInputStream in) throws IOException {
+        int raw = readVarInt(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+    
+    /**
+     * Write a nullable string as length-prefixed UTF-8
+     */
+    public static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+    
+    public static String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Write a nullable timestamp as zig-zag epoch milliseconds
+     */
+    public static void writeTimestamp(DataOutputStream out, LocalDateTime value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        long millis = value.toInstant(ZoneOffset.UTC).toEpochMilli();
+        writeVarLong(out, ((millis << 1) ^ (millis >> 63)) + 1);
+    }
+    
+    public static LocalDateTime readTimestamp(DataInputStream in) throws IOException {
+        long raw = readVarLong(in);
+        if (raw == 0) {
+            return null;
+        }
+        raw -= 1;
+        long millis = (raw >>> 1) ^ -(raw & 1);
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+    
+    /**
+     * Write a nullable enum constant by ordinal
+     */
+    public static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        writeVarInt(out, value == null ? 0 : value.ordinal() + 1);
+    }
+    
+    public static <E extends Enum<E>> E readEnum(DataInputStream in, Class<E> type) throws IOException {
+        int ordinal = readVarInt(in);
+        if (ordinal == 0) {
+            return null;
+        }
+        E[] constants = type.getEnumConstants();
+        if (ordinal > constants.length) {
+            throw new IOException("Unknown " + type.getSimpleName() + " ordinal " + (ordinal - 1));
+        }
+        return constants[ordinal - 1];
+    }
+}
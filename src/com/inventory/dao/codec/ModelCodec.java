@@ -0,0 +1,55 @@
+package com.inventory.dao.codec;
+
+import com.inventory.dao.storage.RecordCodec;
+import com.inventory.dao.storage.SerializingCodec;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Base class for the versioned binary codecs of the model classes.
+ * Every record starts with a format version byte. Records written by the
+ * earlier Java-serialization codec start with the stream magic byte 0xAC
+ * instead and are still readable.
+ */
+public abstract class ModelCodec<T extends Serializable> implements RecordCodec<T> {
+    private static final int SERIALIZATION_MAGIC = 0xAC;
+    
+    private final int version;
+    private final Class<T> type;
+    private final SerializingCodec<T> legacy;
+    
+    protected ModelCodec(Class<T> type, int version) {
+        this.type = type;
+        this.version = version;
+        this.legacy = new SerializingCodec<>(type);
+    }
+    
+    @Override
+    public final void write(T value, DataOutputStream out) throws IOException {
+        out.writeByte(version);
+        encode(value, out);
+    }
+    
+    @Override
+    public final T read(DataInputStream in) throws IOException {
+        if (in.markSupported()) {
+            in.mark(1);
+            if (in.read() == SERIALIZATION_MAGIC) {
+                in.reset();
+                return legacy.read(in);
+            }
+            in.reset();
+        }
+        int recordVersion = in.readUnsignedByte();
+        if (recordVersion < 1 || recordVersion > version) {
+            throw new IOException("Unsupported " + type.getSimpleName() + " record version " + recordVersion);
+        }
+        return decode(in, recordVersion);
+    }
+    
+    protected abstract void encode(T value, DataOutputStream out) throws IOException;
+    
+    protected abstract T decode(DataInputStream in, int version) throws IOException;
+}
@@ -0,0 +1,49 @@
+package com.inventory.dao.codec;
+
+import com.inventory.model.Product;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static com.inventory.dao.codec.BinaryFormat.*;
+
+/**
+ * Binary codec for Product records
+ */
+public class ProductCodec extends ModelCodec<Product> {
+    private static final int VERSION = 1;
+    
+    public ProductCodec() {
+        super(Product.class, VERSION);
+    }
+    
+    @Override
+    protected void encode(Product p, DataOutputStream out) throws IOException {
+        writeString(out, p.getProductId());
+        writeString(out, p.getName());
+        writeString(out, p.getCategory());
+        out.writeDouble(p.getPrice());
+        writeSignedVarInt(out, p.getQuantity());
+        writeSignedVarInt(out, p.getMinStockLevel());
+        writeString(out, p.getSupplierId());
+        writeString(out, p.getDescription());
+        writeTimestamp(out, p.getCreatedDate());
+        writeTimestamp(out, p.getLastModifiedDate());
+    }
+    
+    @Override
+    protected Product decode(DataInputStream in, int version) throws IOException {
+        Product p = new Product();
+        p.setProductId(readString(in));
+        p.setName(readString(in));
+        p.setCategory(readString(in));
+        p.setPrice(in.readDouble());
+        p.setQuantity(readSignedVarInt(in));
+        p.setMinStockLevel(readSignedVarInt(in));
+        p.setSupplierId(readString(in));
+        p.setDescription(readString(in));
+        p.setCreatedDate(readTimestamp(in));
+        p.setLastModifiedDate(readTimestamp(in));
+        return p;
+    }
+}
@@ -0,0 +1,49 @@
+package com.inventory.dao.codec;
+
+import com.inventory.model.Supplier;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static com.inventory.dao.codec.BinaryFormat.*;
+
+/**
+ * Binary codec for Supplier records
+ */
+public class SupplierCodec extends ModelCodec<Supplier> {
+    private static final int VERSION = 1;
+    
+    public SupplierCodec() {
+        super(Supplier.class, VERSION);
+    }
+    
+    @Override
+    protected void encode(Supplier s, DataOutputStream out) throws IOException {
+        writeString(out, s.getSupplierId());
+        writeString(out, s.getName());
+        writeString(out, s.getContactPerson());
+        writeString(out, s.getPhone());
+        writeString(out, s.getEmail());
+        writeString(out, s.getAddress());
+        out.writeDouble(s.getRating());
+        writeSignedVarInt(out, s.getTotalOrders());
+        writeTimestamp(out, s.getRegisteredDate());
+        out.writeBoolean(s.isActive());
+    }
+    
+    @Override
+    protected Supplier decode(DataInputStream in, int version) throws IOException {
+        Supplier s = new Supplier();
+        s.setSupplierId(readString(in));
+        s.setName(readString(in));
+        s.setContactPerson(readString(in));
+        s.setPhone(readString(in));
+        s.setEmail(readString(in));
+        s.setAddress(readString(in));
+        s.setRating(in.readDouble());
+        s.setTotalOrders(readSignedVarInt(in));
+        s.setRegisteredDate(readTimestamp(in));
+        s.setActive(in.readBoolean());
+        return s;
+    }
+}
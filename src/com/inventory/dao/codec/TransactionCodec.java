@@ -0,0 +1,49 @@
+package com.inventory.dao.codec;
+
+import com.inventory.model.Transaction;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static com.inventory.dao.codec.BinaryFormat.*;
+
+/**
+ * Binary codec for Transaction records
+ */
+public class TransactionCodec extends ModelCodec<Transaction> {
+    private static final int VERSION = 1;
+    
+    public TransactionCodec() {
+        super(Transaction.class, VERSION);
+    }
+    
+    @Override
+    protected void encode(Transaction t, DataOutputStream out) throws IOException {
+        writeString(out, t.getTransactionId());
+        writeString(out, t.getProductId());
+        writeEnum(out, t.getType());
+        writeSignedVarInt(out, t.getQuantity());
+        out.writeDouble(t.getPricePerUnit());
+        out.writeDouble(t.getTotalAmount());
+        writeString(out, t.getPerformedBy());
+        writeTimestamp(out, t.getTransactionDate());
+        writeString(out, t.getRemarks());
+        writeString(out, t.getSupplierId());
+    }
+    
+    @Override
+    protected Transaction decode(DataInputStream in, int version) throws IOException {
+        Transaction t = new Transaction();
+        t.setTransactionId(readString(in));
+        t.setProductId(readString(in));
+        t.setType(readEnum(in, Transaction.TransactionType.class));
+        t.setQuantity(readSignedVarInt(in));
+        t.setPricePerUnit(in.readDouble());
+        t.setTotalAmount(in.readDouble());
+        t.setPerformedBy(readString(in));
+        t.setTransactionDate(readTimestamp(in));
+        t.setRemarks(readString(in));
+        t.setSupplierId(readString(in));
+        return t;
+    }
+}
@@ -0,0 +1,29 @@
+package com.inventory.dao.codec;
+
+import com.inventory.model.TransactionTotals;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Binary codec for TransactionTotals records
+ */
+public class TransactionTotalsCodec extends ModelCodec<TransactionTotals> {
+    private static final int VERSION = 1;
+    
+    public TransactionTotalsCodec() {
+        super(TransactionTotals.class, VERSION);
+    }
+    
+    @Override
+    protected void encode(TransactionTotals t, DataOutputStream out) throws IOException {
+        out.writeLong(t.getCount());
+        out.writeLong(t.getQuantity());
+        out.writeDouble(t.getAmount());
+    }
+    
+    @Override
+    protected TransactionTotals decode(DataInputStream in, int version) throws IOException {
+        return new TransactionTotals(in.readLong(), in.readLong(), in.readDouble());
+    }
+}
@@ -0,0 +1,47 @@
+package com.inventory.dao.codec;
+
+import com.inventory.model.User;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static com.inventory.dao.codec.BinaryFormat.*;
+
+/**
+ * Binary codec for User records
+ */
+public class UserCodec extends ModelCodec<User> {
+    private static final int VERSION = 1;
+    
+    public UserCodec() {
+        super(User.class, VERSION);
+    }
+    
+    @Override
+    protected void encode(User u, DataOutputStream out) throws IOException {
+        writeString(out, u.getUserId());
+        writeString(out, u.getUsername());
+        writeString(out, u.getPasswordHash());
+        writeString(out, u.getFullName());
+        writeString(out, u.getEmail());
+        writeEnum(out, u.getRole());
+        out.writeBoolean(u.isActive());
+        writeTimestamp(out, u.getCreatedDate());
+        writeTimestamp(out, u.getLastLoginDate());
+    }
+    
+    @Override
+    protected User decode(DataInputStream in, int version) throws IOException {
+        User u = new User();
+        u.setUserId(readString(in));
+        u.setUsername(readString(in));
+        u.setPasswordHash(readString(in));
+        u.setFullName(readString(in));
+        u.setEmail(readString(in));
+        u.setRole(readEnum(in, User.UserRole.class));
+        u.setActive(in.readBoolean());
+        u.setCreatedDate(readTimestamp(in));
+        u.setLastLoginDate(readTimestamp(in));
+        return u;
+    }
+}
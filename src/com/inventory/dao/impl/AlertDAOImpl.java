@@ -1,22 +1,41 @@
 package com.inventory.dao.impl;
 
 import com.inventory.dao.AlertDAO;
+import com.inventory.dao.ChangeListener;
 import com.inventory.model.Alert;
+import com.inventory.model.Page;
 import com.inventory.exception.InventoryException;
-import com.inventory.util.FileHandler;
+import com.inventory.dao.codec.AlertCodec;
+import com.inventory.dao.index.SortedIndex;
+import com.inventory.dao.storage.SnapshotFile;
+import com.inventory.util.StripedLock;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * File-based implementation of AlertDAO
+ * File-based implementation of AlertDAO.
+ * Safe for concurrent use: reads go to a concurrent map, writes to the
+ * same alert are serialized on a striped per-ID lock.
  */
 public class AlertDAOImpl implements AlertDAO {
     private static final String DATA_FILE = "data/alerts.dat";
+    // Fixed width, so creation times sort correctly as text
+    private static final DateTimeFormatter ORDER_FORMAT = DateTimeFormatter.ofPattern("uuuuMMddHHmmssSSSSSSSSS");
     private static AlertDAOImpl instance;
+    private final AlertCodec codec = new AlertCodec();
     private Map<String, Alert> alertMap;
+    private final StripedLock locks = new StripedLock(16);
+    private final SortedIndex dateOrder = new SortedIndex();
+    private final ChangeNotifier<Alert> listeners = new ChangeNotifier<>();
     
     private AlertDAOImpl() {
-        alertMap = new HashMap<>();
+        alertMap = new ConcurrentHashMap<>();
         loadFromFile();
     }
     
@@ -32,11 +51,47 @@ public class AlertDAOImpl implements AlertDAO {
         if (alert == null || alert.getAlertId() == null) {
             throw new InventoryException("Alert or Alert ID cannot be null");
         }
-        if (alertMap.containsKey(alert.getAlertId())) {
-            throw new InventoryException("Alert with ID " + alert.getAlertId() + " already exists");
+        Lock lock = locks.get(alert.getAlertId());
+        lock.lock();
+        try {
+            if (alertMap.containsKey(alert.getAlertId())) {
+                throw new InventoryException("Alert with ID " + alert.getAlertId() + " already exists");
+            }
+            alertMap.put(alert.getAlertId(), alert);
+            index(alert);
+            saveToFile();
+            listeners.saved(alert);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public void saveAll(Collection<Alert> alerts) throws InventoryException {
+        Map<String, Alert> batch = new LinkedHashMap<>();
+        for (Alert alert : alerts) {
+            if (alert == null || alert.getAlertId() == null) {
+                throw new InventoryException("Alert or Alert ID cannot be null");
+            }
+            if (batch.put(alert.getAlertId(), alert) != null) {
+                throw new InventoryException("Alert with ID " + alert.getAlertId() + " already exists");
+            }
+        }
+        List<Lock> held = locks.getAll(batch.keySet());
+        held.forEach(Lock::lock);
+        try {
+            for (String alertId : batch.keySet()) {
+                if (alertMap.containsKey(alertId)) {
+                    throw new InventoryException("Alert with ID " + alertId + " already exists");
+                }
+            }
+            alertMap.putAll(batch);
+            batch.values().forEach(this::index);
+            saveToFile();
+            listeners.saved(batch.values());
+        } finally {
+            held.forEach(Lock::unlock);
         }
-        alertMap.put(alert.getAlertId(), alert);
-        saveToFile();
     }
     
     @Override
@@ -44,11 +99,19 @@ public class AlertDAOImpl implements AlertDAO {
         if (alert == null || alert.getAlertId() == null) {
             throw new InventoryException("Alert or Alert ID cannot be null");
         }
-        if (!alertMap.containsKey(alert.getAlertId())) {
-            throw new InventoryException("Alert with ID " + alert.getAlertId() + " not found");
+        Lock lock = locks.get(alert.getAlertId());
+        lock.lock();
+        try {
+            if (!alertMap.containsKey(alert.getAlertId())) {
+                throw new InventoryException("Alert with ID " + alert.getAlertId() + " not found");
+            }
+            alertMap.put(alert.getAlertId(), alert);
+            index(alert);
+            saveToFile();
+            listeners.saved(alert);
+        } finally {
+            lock.unlock();
         }
-        alertMap.put(alert.getAlertId(), alert);
-        saveToFile();
     }
     
     @Override
@@ -56,11 +119,19 @@ public class AlertDAOImpl implements AlertDAO {
         if (alertId == null) {
             throw new InventoryException("Alert ID cannot be null");
         }
-        if (!alertMap.containsKey(alertId)) {
-            throw new InventoryException("Alert with ID " + alertId + " not found");
+        Lock lock = locks.get(alertId);
+        lock.lock();
+        try {
+            if (!alertMap.containsKey(alertId)) {
+                throw new InventoryException("Alert with ID " + alertId + " not found");
+            }
+            alertMap.remove(alertId);
+            dateOrder.remove(alertId);
+            saveToFile();
+            listeners.deleted(alertId);
+        } finally {
+            lock.unlock();
         }
-        alertMap.remove(alertId);
-        saveToFile();
     }
     
     @Override
@@ -111,20 +182,65 @@ public class AlertDAOImpl implements AlertDAO {
         return alertMap.containsKey(alertId);
     }
     
+    @Override
+    public Page<Alert> findPage(String cursor, int limit, boolean newestFirst) throws InventoryException {
+        if (limit <= 0) {
+            throw new InventoryException("Page size must be positive");
+        }
+        Page<String> ids = dateOrder.page(cursor, limit, newestFirst);
+        List<Alert> alerts = new ArrayList<>(ids.getItems().size());
+        for (String alertId : ids.getItems()) {
+            Alert alert = alertMap.get(alertId);
+            if (alert != null) {
+                alerts.add(alert);
+            }
+        }
+        return new Page<>(alerts, ids.getNextCursor());
+    }
+    
+    @Override
+    public void addChangeListener(ChangeListener<Alert> listener) {
+        listeners.add(listener);
+    }
+    
+    @Override
+    public Stream<Alert> stream() {
+        return alertMap.values().stream();
+    }
+    
+    @Override
+    public long count() throws InventoryException {
+        return alertMap.size();
+    }
+    
+    @Override
+    public void forEach(Predicate<Alert> action) throws InventoryException {
+        for (Alert alert : alertMap.values()) {
+            if (!action.test(alert)) {
+                return;
+            }
+        }
+    }
+    
     private void loadFromFile() {
         try {
-            Object data = FileHandler.readFromFile(DATA_FILE);
-            if (data instanceof Map) {
-                alertMap = (Map<String, Alert>) data;
-            }
+            alertMap = new ConcurrentHashMap<>(SnapshotFile.read(DATA_FILE, codec));
         } catch (Exception e) {
-            alertMap = new HashMap<>();
+            alertMap = new ConcurrentHashMap<>();
+        }
+        for (Alert alert : alertMap.values()) {
+            index(alert);
         }
     }
     
-    private void saveToFile() throws InventoryException {
+    private void index(Alert alert) {
+        LocalDateTime created = alert.getCreatedDate();
+        dateOrder.put(alert.getAlertId(), created == null ? null : created.format(ORDER_FORMAT));
+    }
+    
+    private synchronized void saveToFile() throws InventoryException {
         try {
-            FileHandler.writeToFile(DATA_FILE, alertMap);
+            SnapshotFile.write(DATA_FILE, alertMap, codec);
         } catch (Exception e) {
             throw new InventoryException("Error saving alerts to file", e);
         }
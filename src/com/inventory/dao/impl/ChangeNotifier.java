@@ -0,0 +1,48 @@
+package com.inventory.dao.impl;
+
+import com.inventory.dao.ChangeListener;
+import com.inventory.util.ClassLogger;
+import com.inventory.util.Logger;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The change listeners registered with one DAO.
+ * A failing listener is logged and skipped; it never fails the write
+ * that triggered it, since the data is already stored by then.
+ */
+class ChangeNotifier<T> {
+    private static final ClassLogger logger = Logger.getLogger(ChangeNotifier.class);
+    private final List<ChangeListener<T>> listeners = new CopyOnWriteArrayList<>();
+    
+    void add(ChangeListener<T> listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+    
+    void saved(T record) {
+        saved(Collections.singletonList(record));
+    }
+    
+    void saved(Collection<T> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        for (ChangeListener<T> listener : listeners) {
+            try {
+                listener.saved(records);
+            } catch (RuntimeException e) {
+                logger.error("Change listener failed", e);
+            }
+        }
+    }
+    
+    void deleted(String id) {
+        for (ChangeListener<T> listener : listeners) {
+            try {
+                listener.deleted(Collections.singletonList(id));
+            } catch (RuntimeException e) {
+                logger.error("Change listener failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.inventory.dao.impl;
+
+import com.inventory.dao.ProductDAO;
+
+/**
+ * Selects the configured DAO implementations
+ */
+public class DAOFactory {
+    private static final String PRODUCT_STORE_PROPERTY = "inventory.products.store";
+    
+    private DAOFactory() {
+    }
+    
+    /**
+     * Get the product store: the log-structured store by default, or the
+     * memory-mapped slot store when inventory.products.store=mapped
+     */
+    public static ProductDAO getProductDAO() {
+        if ("mapped".equalsIgnoreCase(System.getProperty(PRODUCT_STORE_PROPERTY))) {
+            return MappedProductDAOImpl.getInstance();
+        }
+        return ProductDAOImpl.getInstance();
+    }
+}
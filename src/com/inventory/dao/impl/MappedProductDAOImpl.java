@@ -0,0 +1,807 @@
+package com.inventory.dao.impl;
+
+import com.inventory.dao.ChangeListener;
+import com.inventory.dao.ProductDAO;
+import com.inventory.dao.codec.BinaryFormat;
+import com.inventory.dao.codec.ProductCodec;
+import com.inventory.dao.index.HashIndex;
+import com.inventory.dao.index.InventoryValueIndex;
+import com.inventory.dao.index.SortedIndex;
+import com.inventory.dao.index.StockLevelIndex;
+import com.inventory.dao.index.TrigramIndex;
+import com.inventory.dao.storage.WriteAheadLog;
+import com.inventory.model.Page;
+import com.inventory.model.Product;
+import com.inventory.exception.InventoryException;
+import com.inventory.util.ClassLogger;
+import com.inventory.util.Logger;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * ProductDAO backed by a memory-mapped file of fixed-width product slots.
+ * Numeric fields live in the slot and are updated in place, so a stock
+ * change writes a few bytes. Strings (name, category, supplier ID,
+ * description) live in an append-only heap file referenced by offset.
+ * Opening the store only walks the slot IDs; product data is paged in by
+ * the OS on first access. The category, supplier and name indexes, the
+ * name order used for paging and the per-category stock value need the
+ * string heap, so they are built on the first query that uses them.
+ *
+ * Readers share a read lock; writers take the write lock only for the few
+ * in-memory slot writes, since a remap on growth replaces the buffer.
+ * Every save, update or delete forces the heap and then the slots to
+ * disk before it returns, once per call for the batch methods.
+ *
+ * Changing a product's strings or deleting it leaves its old heap block
+ * behind; opening the store rewrites the heap once it is mostly garbage.
+ */
+public class MappedProductDAOImpl implements ProductDAO {
+    private static final ClassLogger logger = Logger.getLogger(MappedProductDAOImpl.class);
+    private static final String SLOT_FILE = "data/products.slots";
+    private static final String HEAP_FILE = "data/products.heap";
+    private static final String LEGACY_DATA_FILE = "data/products.dat";
+    private static final String LEGACY_LOG_DIR = "data/products.wal";
+    
+    private static final int MAGIC = 0x50534C54; // "PSLT"
+    // Version 2 added the heap generation; version 1 files use generation 0
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int INITIAL_CAPACITY = 1024;
+    // The heap is compacted on open once it is this large and half garbage
+    private static final long COMPACT_MIN_HEAP = 1024 * 1024;
+    
+    // Header layout
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_SLOT_COUNT = 8;
+    private static final int H_HEAP_GENERATION = 12;
+    
+    // Slot layout
+    private static final int SLOT_SIZE = 96;
+    private static final int ID_CAPACITY = 32;
+    private static final int S_STATUS = 0;
+    private static final int S_ID_LENGTH = 1;
+    private static final int S_ID = 2;
+    private static final int S_QUANTITY = 36;
+    private static final int S_MIN_STOCK = 40;
+    private static final int S_STRINGS_LENGTH = 44;
+    private static final int S_PRICE = 48;
+    private static final int S_STRINGS_OFFSET = 56;
+    private static final int S_CREATED = 64;
+    private static final int S_MODIFIED = 72;
+    
+    private static final byte FREE = 0;
+    private static final byte LIVE = 1;
+    
+    private static MappedProductDAOImpl instance;
+    private final Map<String, Integer> slotIndex = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final StockLevelIndex stockLevels = new StockLevelIndex();
+    private final HashIndex categoryIndex = new HashIndex();
+    private final HashIndex supplierIndex = new HashIndex();
+    private final TrigramIndex nameIndex = new TrigramIndex();
+    private final SortedIndex idOrder = new SortedIndex();
+    private final SortedIndex nameOrder = new SortedIndex();
+    private final InventoryValueIndex values = new InventoryValueIndex();
+    private final ChangeNotifier<Product> listeners = new ChangeNotifier<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean attributeIndexesBuilt;
+    private FileChannel slotChannel;
+    private FileChannel heapChannel;
+    private MappedByteBuffer slots;
+    private int capacity;
+    private int slotCount;
+    private long heapEnd;
+    
+    private MappedProductDAOImpl() {
+        try {
+            open();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open product store " + SLOT_FILE, e);
+        }
+    }
+    
+    public static synchronized MappedProductDAOImpl getInstance() {
+        if (instance == null) {
+            instance = new MappedProductDAOImpl();
+        }
+        return instance;
+    }
+    
+    @Override
+    public void save(Product product) throws InventoryException {
+        if (product == null || product.getProductId() == null) {
+            throw new InventoryException("Product or Product ID cannot be null");
+        }
+        lock.writeLock().lock();
+        try {
+            insert(product);
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void saveAll(Collection<Product> products) throws InventoryException {
+        lock.writeLock().lock();
+        try {
+            Set<String> ids = new HashSet<>();
+            for (Product product : products) {
+                if (product == null || product.getProductId() == null) {
+                    throw new InventoryException("Product or Product ID cannot be null");
+                }
+                if (slotIndex.containsKey(product.getProductId()) || !ids.add(product.getProductId())) {
+                    throw new InventoryException("Product with ID " + product.getProductId() + " already exists");
+                }
+                if (product.getProductId().getBytes(StandardCharsets.UTF_8).length > ID_CAPACITY) {
+                    throw new InventoryException("Product ID too long for mapped store: " + product.getProductId());
+                }
+            }
+            for (Product product : products) {
+                insert(product);
+            }
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void update(Product product) throws InventoryException {
+        if (product == null || product.getProductId() == null) {
+            throw new InventoryException("Product or Product ID cannot be null");
+        }
+        lock.writeLock().lock();
+        try {
+            overwrite(product);
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void updateAll(Collection<Product> products) throws InventoryException {
+        lock.writeLock().lock();
+        try {
+            // Slots are written in place, so check every ID before touching any
+            for (Product product : products) {
+                if (product == null || product.getProductId() == null) {
+                    throw new InventoryException("Product or Product ID cannot be null");
+                }
+                if (!slotIndex.containsKey(product.getProductId())) {
+                    throw new InventoryException("Product with ID " + product.getProductId() + " not found");
+                }
+            }
+            for (Product product : products) {
+                overwrite(product);
+            }
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void delete(String productId) throws InventoryException {
+        if (productId == null) {
+            throw new InventoryException("Product ID cannot be null");
+        }
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotIndex.remove(productId);
+            if (slot == null) {
+                throw new InventoryException("Product with ID " + productId + " not found");
+            }
+            slots.put(slotOffset(slot) + S_STATUS, FREE);
+            sync();
+            freeSlots.push(slot);
+            stockLevels.remove(productId);
+            categoryIndex.remove(productId);
+            supplierIndex.remove(productId);
+            nameIndex.remove(productId);
+            idOrder.remove(productId);
+            nameOrder.remove(productId);
+            values.remove(productId);
+            listeners.deleted(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Write a new product into a free slot; the caller holds the write lock
+     */
+    private void insert(Product product) throws InventoryException {
+        if (slotIndex.containsKey(product.getProductId())) {
+            throw new InventoryException("Product with ID " + product.getProductId() + " already exists");
+        }
+        byte[] id = product.getProductId().getBytes(StandardCharsets.UTF_8);
+        if (id.length > ID_CAPACITY) {
+            throw new InventoryException("Product ID too long for mapped store: " + product.getProductId());
+        }
+        try {
+            int slot = allocateSlot();
+            int base = slotOffset(slot);
+            writeStrings(base, product);
+            writeNumbers(base, product);
+            slots.put(base + S_ID_LENGTH, (byte) id.length);
+            for (int i = 0; i < id.length; i++) {
+                slots.put(base + S_ID + i, id[i]);
+            }
+            slots.putLong(base + S_CREATED, toMillis(product.getCreatedDate()));
+            slots.put(base + S_STATUS, LIVE);
+            slotIndex.put(product.getProductId(), slot);
+        } catch (IOException e) {
+            throw new InventoryException("Error saving products to file", e);
+        }
+        index(product);
+        listeners.saved(product);
+    }
+    
+    /**
+     * Write a product over its slot; the caller holds the write lock
+     */
+    private void overwrite(Product product) throws InventoryException {
+        Integer slot = slotIndex.get(product.getProductId());
+        if (slot == null) {
+            throw new InventoryException("Product with ID " + product.getProductId() + " not found");
+        }
+        int base = slotOffset(slot);
+        try {
+            if (!Arrays.equals(encodeStrings(product), readHeapBlock(base))) {
+                writeStrings(base, product);
+            }
+        } catch (IOException e) {
+            throw new InventoryException("Error saving products to file", e);
+        }
+        writeNumbers(base, product);
+        index(product);
+        listeners.saved(product);
+    }
+    
+    /**
+     * Force written heap blocks, then the slots pointing at them, to disk
+     */
+    private void sync() throws InventoryException {
+        try {
+            heapChannel.force(false);
+            slots.force();
+        } catch (IOException | UncheckedIOException e) {
+            throw new InventoryException("Error saving products to file", e);
+        }
+    }
+    
+    @Override
+    public Product findById(String productId) throws InventoryException {
+        if (productId == null) {
+            throw new InventoryException("Product ID cannot be null");
+        }
+        lock.readLock().lock();
+        try {
+            Integer slot = slotIndex.get(productId);
+            return slot == null ? null : readProduct(productId, slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public List<Product> findAll() throws InventoryException {
+        lock.readLock().lock();
+        try {
+            List<Product> result = new ArrayList<>(slotIndex.size());
+            for (Map.Entry<String, Integer> entry : slotIndex.entrySet()) {
+                result.add(readProduct(entry.getKey(), entry.getValue()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public List<Product> findByCategory(String category) throws InventoryException {
+        if (category == null) {
+            throw new InventoryException("Category cannot be null");
+        }
+        buildAttributeIndexes();
+        return readProducts(categoryIndex.get(category));
+    }
+    
+    @Override
+    public List<Product> findBySupplierId(String supplierId) throws InventoryException {
+        if (supplierId == null) {
+            throw new InventoryException("Supplier ID cannot be null");
+        }
+        buildAttributeIndexes();
+        return readProducts(supplierIndex.get(supplierId));
+    }
+    
+    @Override
+    public List<Product> findByName(String name) throws InventoryException {
+        if (name == null) {
+            throw new InventoryException("Name cannot be null");
+        }
+        buildAttributeIndexes();
+        return readProducts(nameIndex.search(name));
+    }
+    
+    @Override
+    public List<Product> findLowStockProducts() throws InventoryException {
+        return readProducts(stockLevels.lowStock());
+    }
+    
+    @Override
+    public List<Product> findOutOfStockProducts() throws InventoryException {
+        return readProducts(stockLevels.outOfStock());
+    }
+    
+    private List<Product> readProducts(Collection<String> productIds) throws InventoryException {
+        lock.readLock().lock();
+        try {
+            List<Product> result = new ArrayList<>(productIds.size());
+            for (String productId : productIds) {
+                Integer slot = slotIndex.get(productId);
+                if (slot != null) {
+                    result.add(readProduct(productId, slot));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public boolean exists(String productId) throws InventoryException {
+        if (productId == null) {
+            throw new InventoryException("Product ID cannot be null");
+        }
+        lock.readLock().lock();
+        try {
+            return slotIndex.containsKey(productId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public List<String> findAllIds() throws InventoryException {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(slotIndex.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public Page<Product> findPage(SortOrder order, String cursor, int limit) throws InventoryException {
+        if (limit <= 0) {
+            throw new InventoryException("Page size must be positive");
+        }
+        if (order == SortOrder.NAME) {
+            buildAttributeIndexes();
+        }
+        Page<String> ids = (order == SortOrder.NAME ? nameOrder : idOrder).page(cursor, limit, false);
+        return new Page<>(readProducts(ids.getItems()), ids.getNextCursor());
+    }
+    
+    @Override
+    public double getTotalValue() throws InventoryException {
+        return values.total();
+    }
+    
+    @Override
+    public double getTotalValue(String category) throws InventoryException {
+        if (category == null) {
+            throw new InventoryException("Category cannot be null");
+        }
+        buildAttributeIndexes();
+        return values.get(category);
+    }
+    
+    @Override
+    public SortedMap<String, Double> getValueByCategory() throws InventoryException {
+        buildAttributeIndexes();
+        return values.byCategory();
+    }
+    
+    @Override
+    public void addChangeListener(ChangeListener<Product> listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Stream products in slot order. Slot ranges split evenly, so parallel
+     * streams divide the file between workers without copying the catalog.
+     */
+    @Override
+    public Stream<Product> stream() {
+        return IntStream.range(0, slotLimit())
+                .mapToObj(slot -> {
+                    try {
+                        return readLiveSlot(slot);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Error reading product slot " + slot, e);
+                    }
+                })
+                .filter(Objects::nonNull);
+    }
+    
+    @Override
+    public long count() throws InventoryException {
+        lock.readLock().lock();
+        try {
+            return slotIndex.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public void forEach(Predicate<Product> action) throws InventoryException {
+        int end = slotLimit();
+        for (int slot = 0; slot < end; slot++) {
+            Product product;
+            try {
+                product = readLiveSlot(slot);
+            } catch (IOException e) {
+                throw new InventoryException("Error reading product slot " + slot, e);
+            }
+            if (product != null && !action.test(product)) {
+                return;
+            }
+        }
+    }
+    
+    private int slotLimit() {
+        lock.readLock().lock();
+        try {
+            return slotCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void index(Product product) {
+        String productId = product.getProductId();
+        stockLevels.update(productId, product.getQuantity(), product.getMinStockLevel());
+        idOrder.put(productId, productId);
+        values.put(productId, product.getCategory(), product.getPrice(), product.getQuantity());
+        if (attributeIndexesBuilt) {
+            categoryIndex.put(productId, product.getCategory());
+            supplierIndex.put(productId, product.getSupplierId());
+            nameIndex.put(productId, product.getName());
+            nameOrder.put(productId, product.getName());
+        }
+    }
+    
+    private void buildAttributeIndexes() throws InventoryException {
+        if (attributeIndexesBuilt) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (attributeIndexesBuilt) {
+                return;
+            }
+            for (Product product : findAll()) {
+                categoryIndex.put(product.getProductId(), product.getCategory());
+                supplierIndex.put(product.getProductId(), product.getSupplierId());
+                nameIndex.put(product.getProductId(), product.getName());
+                nameOrder.put(product.getProductId(), product.getName());
+                values.put(product.getProductId(), product.getCategory(), product.getPrice(), product.getQuantity());
+            }
+            attributeIndexesBuilt = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void open() throws IOException {
+        File slotFile = new File(SLOT_FILE);
+        boolean created = !slotFile.exists();
+        slotFile.getAbsoluteFile().getParentFile().mkdirs();
+        if (!created) {
+            // Before mapping: a mapped file cannot be replaced on every platform
+            compactHeap();
+        }
+        slotChannel = FileChannel.open(slotFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        
+        if (created) {
+            map(INITIAL_CAPACITY);
+            slots.putInt(H_MAGIC, MAGIC);
+            slots.putInt(H_VERSION, VERSION);
+            slots.putInt(H_SLOT_COUNT, 0);
+            slots.putInt(H_HEAP_GENERATION, 0);
+            openHeap(0);
+            seedFromLogStore();
+            return;
+        }
+        map((int) ((slotChannel.size() - HEADER_SIZE) / SLOT_SIZE));
+        int version = slots.getInt(H_VERSION);
+        if (slots.getInt(H_MAGIC) != MAGIC || version < 1 || version > VERSION) {
+            throw new IOException("Not a product slot file: " + SLOT_FILE);
+        }
+        openHeap(version >= 2 ? slots.getInt(H_HEAP_GENERATION) : 0);
+        slotCount = slots.getInt(H_SLOT_COUNT);
+        for (int slot = 0; slot < slotCount; slot++) {
+            int base = slotOffset(slot);
+            if (slots.get(base + S_STATUS) == LIVE) {
+                String productId = readId(base);
+                slotIndex.put(productId, slot);
+                idOrder.put(productId, productId);
+                // Stock levels and value come from the fixed-width fields, so no heap
+                // reads here; categories are filled in with the attribute indexes
+                stockLevels.update(productId, slots.getInt(base + S_QUANTITY), slots.getInt(base + S_MIN_STOCK));
+                values.put(productId, null, slots.getDouble(base + S_PRICE), slots.getInt(base + S_QUANTITY));
+            } else {
+                freeSlots.push(slot);
+            }
+        }
+    }
+    
+    private void openHeap(int generation) throws IOException {
+        heapChannel = FileChannel.open(heapFile(generation).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        heapEnd = heapChannel.size();
+        if (generation > 0) {
+            // Left behind if the last compaction stopped before deleting it
+            Files.deleteIfExists(heapFile(generation - 1).toPath());
+        }
+    }
+    
+    /**
+     * Heap files are numbered by generation so that a compacted heap never
+     * replaces the one the current slot file points into
+     */
+    private static File heapFile(int generation) {
+        return new File(generation == 0 ? HEAP_FILE : HEAP_FILE + "." + generation);
+    }
+    
+    /**
+     * Copy the live heap blocks to a new heap file when at least half the
+     * heap is garbage. The slots, repointed at the copies, go to a
+     * temporary slot file naming the new heap; renaming it over the slot
+     * file switches both at once, so a crash leaves the old or the new
+     * store whole.
+     */
+    private void compactHeap() throws IOException {
+        Path slotPath = Paths.get(SLOT_FILE);
+        Path tempPath = Paths.get(SLOT_FILE + ".tmp");
+        File oldHeap;
+        long oldSize;
+        long liveSize = 0;
+        try (FileChannel in = FileChannel.open(slotPath, StandardOpenOption.READ)) {
+            ByteBuffer header = read(in, 0, HEADER_SIZE);
+            int version = header.getInt(H_VERSION);
+            if (header.getInt(H_MAGIC) != MAGIC || version < 1 || version > VERSION) {
+                return; // reported by open()
+            }
+            int generation = version >= 2 ? header.getInt(H_HEAP_GENERATION) : 0;
+            oldHeap = heapFile(generation);
+            oldSize = oldHeap.length();
+            if (oldSize < COMPACT_MIN_HEAP) {
+                return;
+            }
+            int count = header.getInt(H_SLOT_COUNT);
+            for (int slot = 0; slot < count; slot++) {
+                ByteBuffer entry = read(in, slotOffset(slot), SLOT_SIZE);
+                if (entry.get(S_STATUS) == LIVE) {
+                    liveSize += entry.getInt(S_STRINGS_LENGTH);
+                }
+            }
+            if (liveSize * 2 > oldSize) {
+                return;
+            }
+            
+            header.putInt(H_VERSION, VERSION);
+            header.putInt(H_HEAP_GENERATION, generation + 1);
+            try (FileChannel heapIn = FileChannel.open(oldHeap.toPath(), StandardOpenOption.READ);
+                 FileChannel heapOut = FileChannel.open(heapFile(generation + 1).toPath(), StandardOpenOption.CREATE,
+                         StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 FileChannel out = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                         StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                write(out, 0, header);
+                long end = 0;
+                for (int slot = 0; slot < count; slot++) {
+                    ByteBuffer entry = read(in, slotOffset(slot), SLOT_SIZE);
+                    if (entry.get(S_STATUS) == LIVE) {
+                        int length = entry.getInt(S_STRINGS_LENGTH);
+                        write(heapOut, end, read(heapIn, entry.getLong(S_STRINGS_OFFSET), length));
+                        entry.putLong(S_STRINGS_OFFSET, end);
+                        end += length;
+                    }
+                    write(out, slotOffset(slot), entry);
+                }
+                heapOut.force(true);
+                out.force(true);
+            }
+        }
+        Files.move(tempPath, slotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(oldHeap.toPath());
+        if (logger.isInfoEnabled()) {
+            logger.info("Compacted the product heap from %d to %d bytes", oldSize, liveSize);
+        }
+    }
+    
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Truncated product store file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+    
+    private static void write(FileChannel channel, long position, ByteBuffer buffer) throws IOException {
+        buffer.rewind();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+    
+    /**
+     * Import the catalog kept by the log-structured store on first use
+     */
+    private void seedFromLogStore() {
+        if (!new File(LEGACY_DATA_FILE).exists() && !new File(LEGACY_LOG_DIR).exists()) {
+            return;
+        }
+        try {
+            Map<String, Product> existing =
+                    new WriteAheadLog<>(LEGACY_DATA_FILE, LEGACY_LOG_DIR, new ProductCodec()).recover();
+            saveAll(existing.values());
+            if (logger.isInfoEnabled()) {
+                logger.info("Imported %d products into %s", existing.size(), SLOT_FILE);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to import products into " + SLOT_FILE, e);
+        }
+    }
+    
+    private void map(int slotCapacity) throws IOException {
+        capacity = Math.max(slotCapacity, INITIAL_CAPACITY);
+        slots = slotChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_SIZE + (long) capacity * SLOT_SIZE);
+    }
+    
+    private int allocateSlot() throws IOException {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        if (slotCount == capacity) {
+            map(capacity * 2);
+        }
+        int slot = slotCount++;
+        slots.putInt(H_SLOT_COUNT, slotCount);
+        return slot;
+    }
+    
+    private int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+    
+    private void writeNumbers(int base, Product product) {
+        slots.putInt(base + S_QUANTITY, product.getQuantity());
+        slots.putInt(base + S_MIN_STOCK, product.getMinStockLevel());
+        slots.putDouble(base + S_PRICE, product.getPrice());
+        slots.putLong(base + S_MODIFIED, toMillis(product.getLastModifiedDate()));
+    }
+    
+    private void writeStrings(int base, Product product) throws IOException {
+        byte[] block = encodeStrings(product);
+        long offset = heapEnd;
+        ByteBuffer buffer = ByteBuffer.wrap(block);
+        while (buffer.hasRemaining()) {
+            heapChannel.write(buffer, offset + buffer.position());
+        }
+        heapEnd += block.length;
+        slots.putLong(base + S_STRINGS_OFFSET, offset);
+        slots.putInt(base + S_STRINGS_LENGTH, block.length);
+    }
+    
+    private byte[] encodeStrings(Product product) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(buffer);
+        BinaryFormat.writeString(out, product.getName());
+        BinaryFormat.writeString(out, product.getCategory());
+        BinaryFormat.writeString(out, product.getSupplierId());
+        BinaryFormat.writeString(out, product.getDescription());
+        out.flush();
+        return buffer.toByteArray();
+    }
+    
+    private byte[] readHeapBlock(int base) throws IOException {
+        byte[] block = new byte[slots.getInt(base + S_STRINGS_LENGTH)];
+        ByteBuffer buffer = ByteBuffer.wrap(block);
+        long offset = slots.getLong(base + S_STRINGS_OFFSET);
+        while (buffer.hasRemaining()) {
+            if (heapChannel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("Truncated string heap " + HEAP_FILE);
+            }
+        }
+        return block;
+    }
+    
+    private String readId(int base) {
+        byte[] id = new byte[slots.get(base + S_ID_LENGTH)];
+        for (int i = 0; i < id.length; i++) {
+            id[i] = slots.get(base + S_ID + i);
+        }
+        return new String(id, StandardCharsets.UTF_8);
+    }
+    
+    private Product readProduct(String productId, int slot) throws InventoryException {
+        try {
+            return readSlot(productId, slot);
+        } catch (IOException e) {
+            throw new InventoryException("Error reading product " + productId, e);
+        }
+    }
+    
+    private Product readSlot(String productId, int slot) throws IOException {
+        int base = slotOffset(slot);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(readHeapBlock(base)));
+        Product p = new Product();
+        p.setProductId(productId);
+        p.setName(BinaryFormat.readString(in));
+        p.setCategory(BinaryFormat.readString(in));
+        p.setSupplierId(BinaryFormat.readString(in));
+        p.setDescription(BinaryFormat.readString(in));
+        p.setPrice(slots.getDouble(base + S_PRICE));
+        p.setQuantity(slots.getInt(base + S_QUANTITY));
+        p.setMinStockLevel(slots.getInt(base + S_MIN_STOCK));
+        p.setCreatedDate(fromMillis(slots.getLong(base + S_CREATED)));
+        p.setLastModifiedDate(fromMillis(slots.getLong(base + S_MODIFIED)));
+        return p;
+    }
+    
+    /**
+     * Read a slot if it holds a live product, taking the read lock only for that slot
+     */
+    private Product readLiveSlot(int slot) throws IOException {
+        lock.readLock().lock();
+        try {
+            if (slot >= slotCount) {
+                return null;
+            }
+            int base = slotOffset(slot);
+            return slots.get(base + S_STATUS) == LIVE ? readSlot(readId(base), slot) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? Long.MIN_VALUE : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+    
+    private static LocalDateTime fromMillis(long millis) {
+        return millis == Long.MIN_VALUE ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
@@ -1,22 +1,55 @@
 package com.inventory.dao.impl;
 
+import com.inventory.dao.ChangeListener;
 import com.inventory.dao.ProductDAO;
+import com.inventory.model.Page;
 import com.inventory.model.Product;
 import com.inventory.exception.InventoryException;
-import com.inventory.util.FileHandler;
+import com.inventory.dao.codec.ProductCodec;
+import com.inventory.dao.index.HashIndex;
+import com.inventory.dao.index.InventoryValueIndex;
+import com.inventory.dao.index.SortedIndex;
+import com.inventory.dao.index.StockLevelIndex;
+import com.inventory.dao.index.TrigramIndex;
+import com.inventory.dao.storage.WriteAheadLog;
+import com.inventory.util.StripedLock;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * File-based implementation of ProductDAO using serialization
+ * File-based implementation of ProductDAO.
+ * Mutations are appended to a write-ahead log and folded into the
+ * snapshot file in the background, so a single stock change no longer
+ * rewrites the whole catalog.
+ *
+ * Safe for concurrent use: reads go straight to a concurrent map, and
+ * writes to the same product are serialized on a striped per-ID lock so
+ * existence checks, index maintenance and the log append happen together.
  */
 public class ProductDAOImpl implements ProductDAO {
     private static final String DATA_FILE = "data/products.dat";
+    private static final String LOG_DIR = "data/products.wal";
     private static ProductDAOImpl instance;
     private Map<String, Product> productMap;
+    private final WriteAheadLog<Product> log;
+    private final StripedLock locks = new StripedLock(64);
+    private final StockLevelIndex stockLevels = new StockLevelIndex();
+    private final HashIndex categoryIndex = new HashIndex();
+    private final HashIndex supplierIndex = new HashIndex();
+    private final TrigramIndex nameIndex = new TrigramIndex();
+    private final SortedIndex idOrder = new SortedIndex();
+    private final SortedIndex nameOrder = new SortedIndex();
+    private final InventoryValueIndex values = new InventoryValueIndex();
+    private final ChangeNotifier<Product> listeners = new ChangeNotifier<>();
     
     private ProductDAOImpl() {
-        productMap = new HashMap<>();
+        productMap = new ConcurrentHashMap<>();
+        log = new WriteAheadLog<>(DATA_FILE, LOG_DIR, new ProductCodec());
         loadFromFile();
     }
     
@@ -33,11 +66,47 @@ public class ProductDAOImpl implements ProductDAO {
         if (product == null || product.getProductId() == null) {
             throw new InventoryException("Product or Product ID cannot be null");
         }
-        if (productMap.containsKey(product.getProductId())) {
-            throw new InventoryException("Product with ID " + product.getProductId() + " already exists");
+        Lock lock = locks.get(product.getProductId());
+        lock.lock();
+        try {
+            if (productMap.containsKey(product.getProductId())) {
+                throw new InventoryException("Product with ID " + product.getProductId() + " already exists");
+            }
+            productMap.put(product.getProductId(), product);
+            index(product);
+            persist(product);
+            listeners.saved(product);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public void saveAll(Collection<Product> products) throws InventoryException {
+        Map<String, Product> batch = new LinkedHashMap<>();
+        for (Product product : products) {
+            if (product == null || product.getProductId() == null) {
+                throw new InventoryException("Product or Product ID cannot be null");
+            }
+            if (batch.put(product.getProductId(), product) != null) {
+                throw new InventoryException("Product with ID " + product.getProductId() + " already exists");
+            }
+        }
+        List<Lock> held = locks.getAll(batch.keySet());
+        held.forEach(Lock::lock);
+        try {
+            for (String productId : batch.keySet()) {
+                if (productMap.containsKey(productId)) {
+                    throw new InventoryException("Product with ID " + productId + " already exists");
+                }
+            }
+            productMap.putAll(batch);
+            batch.values().forEach(this::index);
+            persistAll(batch);
+            listeners.saved(batch.values());
+        } finally {
+            held.forEach(Lock::unlock);
         }
-        productMap.put(product.getProductId(), product);
-        saveToFile();
     }
     
     @Override
@@ -45,11 +114,45 @@ public class ProductDAOImpl implements ProductDAO {
         if (product == null || product.getProductId() == null) {
             throw new InventoryException("Product or Product ID cannot be null");
         }
-        if (!productMap.containsKey(product.getProductId())) {
-            throw new InventoryException("Product with ID " + product.getProductId() + " not found");
+        Lock lock = locks.get(product.getProductId());
+        lock.lock();
+        try {
+            if (!productMap.containsKey(product.getProductId())) {
+                throw new InventoryException("Product with ID " + product.getProductId() + " not found");
+            }
+            productMap.put(product.getProductId(), product);
+            index(product);
+            persist(product);
+            listeners.saved(product);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public void updateAll(Collection<Product> products) throws InventoryException {
+        Map<String, Product> batch = new LinkedHashMap<>();
+        for (Product product : products) {
+            if (product == null || product.getProductId() == null) {
+                throw new InventoryException("Product or Product ID cannot be null");
+            }
+            batch.put(product.getProductId(), product);
+        }
+        List<Lock> held = locks.getAll(batch.keySet());
+        held.forEach(Lock::lock);
+        try {
+            for (String productId : batch.keySet()) {
+                if (!productMap.containsKey(productId)) {
+                    throw new InventoryException("Product with ID " + productId + " not found");
+                }
+            }
+            productMap.putAll(batch);
+            batch.values().forEach(this::index);
+            persistAll(batch);
+            listeners.saved(batch.values());
+        } finally {
+            held.forEach(Lock::unlock);
         }
-        productMap.put(product.getProductId(), product);
-        saveToFile();
     }
     
     @Override
@@ -57,11 +160,19 @@ public class ProductDAOImpl implements ProductDAO {
         if (productId == null) {
             throw new InventoryException("Product ID cannot be null");
         }
-        if (!productMap.containsKey(productId)) {
-            throw new InventoryException("Product with ID " + productId + " not found");
+        Lock lock = locks.get(productId);
+        lock.lock();
+        try {
+            if (!productMap.containsKey(productId)) {
+                throw new InventoryException("Product with ID " + productId + " not found");
+            }
+            productMap.remove(productId);
+            unindex(productId);
+            persistRemoval(productId);
+            listeners.deleted(productId);
+        } finally {
+            lock.unlock();
         }
-        productMap.remove(productId);
-        saveToFile();
     }
     
     @Override
@@ -82,8 +193,20 @@ public class ProductDAOImpl implements ProductDAO {
         if (category == null) {
             throw new InventoryException("Category cannot be null");
         }
-        return productMap.values().stream()
-                .filter(p -> category.equalsIgnoreCase(p.getCategory()))
+        return categoryIndex.get(category).stream()
+                .map(productMap::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<Product> findBySupplierId(String supplierId) throws InventoryException {
+        if (supplierId == null) {
+            throw new InventoryException("Supplier ID cannot be null");
+        }
+        return supplierIndex.get(supplierId).stream()
+                .map(productMap::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
     
@@ -92,15 +215,25 @@ public class ProductDAOImpl implements ProductDAO {
         if (name == null) {
             throw new InventoryException("Name cannot be null");
         }
-        return productMap.values().stream()
-                .filter(p -> p.getName().toLowerCase().contains(name.toLowerCase()))
+        return nameIndex.search(name).stream()
+                .map(productMap::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
     
     @Override
     public List<Product> findLowStockProducts() throws InventoryException {
-        return productMap.values().stream()
-                .filter(Product::isLowStock)
+        return stockLevels.lowStock().stream()
+                .map(productMap::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<Product> findOutOfStockProducts() throws InventoryException {
+        return stockLevels.outOfStock().stream()
+                .map(productMap::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
     
@@ -112,21 +245,122 @@ public class ProductDAOImpl implements ProductDAO {
         return productMap.containsKey(productId);
     }
     
+    @Override
+    public List<String> findAllIds() throws InventoryException {
+        return new ArrayList<>(productMap.keySet());
+    }
+    
+    @Override
+    public Page<Product> findPage(SortOrder order, String cursor, int limit) throws InventoryException {
+        if (limit <= 0) {
+            throw new InventoryException("Page size must be positive");
+        }
+        Page<String> ids = (order == SortOrder.NAME ? nameOrder : idOrder).page(cursor, limit, false);
+        List<Product> products = new ArrayList<>(ids.getItems().size());
+        for (String productId : ids.getItems()) {
+            Product product = productMap.get(productId);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return new Page<>(products, ids.getNextCursor());
+    }
+    
+    @Override
+    public double getTotalValue() throws InventoryException {
+        return values.total();
+    }
+    
+    @Override
+    public double getTotalValue(String category) throws InventoryException {
+        if (category == null) {
+            throw new InventoryException("Category cannot be null");
+        }
+        return values.get(category);
+    }
+    
+    @Override
+    public SortedMap<String, Double> getValueByCategory() throws InventoryException {
+        return values.byCategory();
+    }
+    
+    @Override
+    public void addChangeListener(ChangeListener<Product> listener) {
+        listeners.add(listener);
+    }
+    
+    @Override
+    public Stream<Product> stream() {
+        return productMap.values().stream();
+    }
+    
+    @Override
+    public long count() throws InventoryException {
+        return productMap.size();
+    }
+    
+    @Override
+    public void forEach(Predicate<Product> action) throws InventoryException {
+        for (Product product : productMap.values()) {
+            if (!action.test(product)) {
+                return;
+            }
+        }
+    }
+    
     private void loadFromFile() {
         try {
-            Object data = FileHandler.readFromFile(DATA_FILE);
-            if (data instanceof Map) {
-                productMap = (Map<String, Product>) data;
-            }
-        } catch (Exception e) {
-            productMap = new HashMap<>();
+            productMap = new ConcurrentHashMap<>(log.recover());
+        } catch (IOException | RuntimeException e) {
+            // Starting empty would hand out IDs and stock figures that contradict the saved catalog
+            throw new IllegalStateException("Cannot load product store " + DATA_FILE, e);
+        }
+        for (Product product : productMap.values()) {
+            index(product);
+        }
+    }
+    
+    private void index(Product product) {
+        String productId = product.getProductId();
+        stockLevels.update(productId, product.getQuantity(), product.getMinStockLevel());
+        categoryIndex.put(productId, product.getCategory());
+        supplierIndex.put(productId, product.getSupplierId());
+        nameIndex.put(productId, product.getName());
+        idOrder.put(productId, productId);
+        nameOrder.put(productId, product.getName());
+        values.put(productId, product.getCategory(), product.getPrice(), product.getQuantity());
+    }
+    
+    private void unindex(String productId) {
+        stockLevels.remove(productId);
+        categoryIndex.remove(productId);
+        supplierIndex.remove(productId);
+        nameIndex.remove(productId);
+        idOrder.remove(productId);
+        nameOrder.remove(productId);
+        values.remove(productId);
+    }
+    
+    private void persist(Product product) throws InventoryException {
+        try {
+            log.put(product.getProductId(), product);
+        } catch (IOException e) {
+            throw new InventoryException("Error saving products to file", e);
+        }
+    }
+    
+    private void persistAll(Map<String, Product> products) throws InventoryException {
+        try {
+            log.putAll(products);
+        } catch (IOException e) {
+            throw new InventoryException("Error saving products to file", e);
         }
     }
     
-    private void saveToFile() throws InventoryException {
+    private void persistRemoval(String productId) throws InventoryException {
         try {
-            FileHandler.writeToFile(DATA_FILE, productMap);
-        } catch (Exception e) {
+            log.remove(productId);
+        } catch (IOException e) {
             throw new InventoryException("Error saving products to file", e);
         }
     }
@@ -1,22 +1,34 @@
 package com.inventory.dao.impl;
 
+import com.inventory.dao.ChangeListener;
 import com.inventory.dao.SupplierDAO;
 import com.inventory.model.Supplier;
 import com.inventory.exception.InventoryException;
-import com.inventory.util.FileHandler;
+import com.inventory.dao.codec.SupplierCodec;
+import com.inventory.dao.index.TrigramIndex;
+import com.inventory.dao.storage.SnapshotFile;
+import com.inventory.util.StripedLock;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 /**
- * File-based implementation of SupplierDAO
+ * File-based implementation of SupplierDAO.
+ * Safe for concurrent use: reads go to a concurrent map, writes to the
+ * same supplier are serialized on a striped per-ID lock.
  */
 public class SupplierDAOImpl implements SupplierDAO {
     private static final String DATA_FILE = "data/suppliers.dat";
     private static SupplierDAOImpl instance;
+    private final SupplierCodec codec = new SupplierCodec();
     private Map<String, Supplier> supplierMap;
+    private final StripedLock locks = new StripedLock(16);
+    private final TrigramIndex nameIndex = new TrigramIndex();
+    private final ChangeNotifier<Supplier> listeners = new ChangeNotifier<>();
     
     private SupplierDAOImpl() {
-        supplierMap = new HashMap<>();
+        supplierMap = new ConcurrentHashMap<>();
         loadFromFile();
     }
     
@@ -32,11 +44,19 @@ public class SupplierDAOImpl implements SupplierDAO {
         if (supplier == null || supplier.getSupplierId() == null) {
             throw new InventoryException("Supplier or Supplier ID cannot be null");
         }
-        if (supplierMap.containsKey(supplier.getSupplierId())) {
-            throw new InventoryException("Supplier with ID " + supplier.getSupplierId() + " already exists");
+        Lock lock = locks.get(supplier.getSupplierId());
+        lock.lock();
+        try {
+            if (supplierMap.containsKey(supplier.getSupplierId())) {
+                throw new InventoryException("Supplier with ID " + supplier.getSupplierId() + " already exists");
+            }
+            supplierMap.put(supplier.getSupplierId(), supplier);
+            nameIndex.put(supplier.getSupplierId(), supplier.getName());
+            saveToFile();
+            listeners.saved(supplier);
+        } finally {
+            lock.unlock();
         }
-        supplierMap.put(supplier.getSupplierId(), supplier);
-        saveToFile();
     }
     
     @Override
@@ -44,11 +64,19 @@ public class SupplierDAOImpl implements SupplierDAO {
         if (supplier == null || supplier.getSupplierId() == null) {
             throw new InventoryException("Supplier or Supplier ID cannot be null");
         }
-        if (!supplierMap.containsKey(supplier.getSupplierId())) {
-            throw new InventoryException("Supplier with ID " + supplier.getSupplierId() + " not found");
+        Lock lock = locks.get(supplier.getSupplierId());
+        lock.lock();
+        try {
+            if (!supplierMap.containsKey(supplier.getSupplierId())) {
+                throw new InventoryException("Supplier with ID " + supplier.getSupplierId() + " not found");
+            }
+            supplierMap.put(supplier.getSupplierId(), supplier);
+            nameIndex.put(supplier.getSupplierId(), supplier.getName());
+            saveToFile();
+            listeners.saved(supplier);
+        } finally {
+            lock.unlock();
         }
-        supplierMap.put(supplier.getSupplierId(), supplier);
-        saveToFile();
     }
     
     @Override
@@ -56,11 +84,19 @@ public class SupplierDAOImpl implements SupplierDAO {
         if (supplierId == null) {
             throw new InventoryException("Supplier ID cannot be null");
         }
-        if (!supplierMap.containsKey(supplierId)) {
-            throw new InventoryException("Supplier with ID " + supplierId + " not found");
+        Lock lock = locks.get(supplierId);
+        lock.lock();
+        try {
+            if (!supplierMap.containsKey(supplierId)) {
+                throw new InventoryException("Supplier with ID " + supplierId + " not found");
+            }
+            supplierMap.remove(supplierId);
+            nameIndex.remove(supplierId);
+            saveToFile();
+            listeners.deleted(supplierId);
+        } finally {
+            lock.unlock();
         }
-        supplierMap.remove(supplierId);
-        saveToFile();
     }
     
     @Override
@@ -81,8 +117,9 @@ public class SupplierDAOImpl implements SupplierDAO {
         if (name == null) {
             throw new InventoryException("Name cannot be null");
         }
-        return supplierMap.values().stream()
-                .filter(s -> s.getName().toLowerCase().contains(name.toLowerCase()))
+        return nameIndex.search(name).stream()
+                .map(supplierMap::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
     
@@ -94,20 +131,25 @@ public class SupplierDAOImpl implements SupplierDAO {
         return supplierMap.containsKey(supplierId);
     }
     
+    @Override
+    public void addChangeListener(ChangeListener<Supplier> listener) {
+        listeners.add(listener);
+    }
+    
     private void loadFromFile() {
         try {
-            Object data = FileHandler.readFromFile(DATA_FILE);
-            if (data instanceof Map) {
-                supplierMap = (Map<String, Supplier>) data;
-            }
+            supplierMap = new ConcurrentHashMap<>(SnapshotFile.read(DATA_FILE, codec));
         } catch (Exception e) {
-            supplierMap = new HashMap<>();
+            supplierMap = new ConcurrentHashMap<>();
+        }
+        for (Supplier supplier : supplierMap.values()) {
+            nameIndex.put(supplier.getSupplierId(), supplier.getName());
         }
     }
     
-    private void saveToFile() throws InventoryException {
+    private synchronized void saveToFile() throws InventoryException {
         try {
-            FileHandler.writeToFile(DATA_FILE, supplierMap);
+            SnapshotFile.write(DATA_FILE, supplierMap, codec);
         } catch (Exception e) {
             throw new InventoryException("Error saving suppliers to file", e);
         }
@@ -1,23 +1,64 @@
 package com.inventory.dao.impl;
 
 import com.inventory.dao.TransactionDAO;
+import com.inventory.model.Page;
 import com.inventory.model.Transaction;
+import com.inventory.model.TransactionTotals;
 import com.inventory.exception.InventoryException;
+import com.inventory.dao.storage.PartitionPeriod;
+import com.inventory.dao.storage.SnapshotFile;
+import com.inventory.dao.codec.TransactionCodec;
+import com.inventory.dao.codec.TransactionTotalsCodec;
+import com.inventory.dao.index.TransactionTotalsIndex;
+import com.inventory.dao.storage.TimePartitionedLog;
+import com.inventory.dao.storage.WriteAheadLog;
 import com.inventory.util.FileHandler;
+import com.inventory.util.ClassLogger;
+import com.inventory.util.Logger;
+import com.inventory.util.StripedLock;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
- * File-based implementation of TransactionDAO
+ * File-based implementation of TransactionDAO.
+ * Transactions are partitioned by transaction date into segment files under
+ * data/transactions (period set by the inventory.transactions.partition
+ * system property: DAY, WEEK or MONTH). Recording a transaction appends to
+ * its own partition only, and date-range queries read only the partitions
+ * overlapping the range. Transactions are indexed by product ID, so a
+ * product's history reads only the partitions in which it was traded.
+ * Running totals per type and day are updated on every save and kept in
+ * a write-ahead log beside the partitions, so sales totals never scan.
+ * The partition store is thread-safe; saving takes a per-ID lock so the
+ * duplicate check and the append cannot interleave with another save.
  */
 public class TransactionDAOImpl implements TransactionDAO {
-    private static final String DATA_FILE = "data/transactions.dat";
+    private static final ClassLogger logger = Logger.getLogger(TransactionDAOImpl.class);
+    private static final String LEGACY_DATA_FILE = "data/transactions.dat";
+    private static final String PARTITION_DIR = "data/transactions";
+    private static final String TOTALS_FILE = "data/transactions/totals.dat";
+    private static final String TOTALS_LOG_DIR = "data/transactions/totals.wal";
+    private static final String PERIOD_PROPERTY = "inventory.transactions.partition";
+    private static final int CACHED_PARTITIONS = 32;
+    private static final DateTimeFormatter ID_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final char CURSOR_SEPARATOR = '|';
     private static TransactionDAOImpl instance;
-    private Map<String, Transaction> transactionMap;
+    private final TransactionCodec codec = new TransactionCodec();
+    private TimePartitionedLog<Transaction> store;
+    private final StripedLock locks = new StripedLock(16);
+    private final TransactionTotalsIndex totals = new TransactionTotalsIndex();
+    private WriteAheadLog<TransactionTotals> totalsLog;
     
     private TransactionDAOImpl() {
-        transactionMap = new HashMap<>();
         loadFromFile();
     }
     
@@ -33,11 +74,54 @@ public class TransactionDAOImpl implements TransactionDAO {
         if (transaction == null || transaction.getTransactionId() == null) {
             throw new InventoryException("Transaction or Transaction ID cannot be null");
         }
-        if (transactionMap.containsKey(transaction.getTransactionId())) {
-            throw new InventoryException("Transaction with ID " + transaction.getTransactionId() + " already exists");
+        if (transaction.getTransactionDate() == null) {
+            throw new InventoryException("Transaction date cannot be null");
+        }
+        Lock lock = locks.get(transaction.getTransactionId());
+        lock.lock();
+        try {
+            // IDs embed their creation time, so a duplicate lives in the same partition
+            if (store.contains(store.partitionOf(transaction), transaction.getTransactionId())) {
+                throw new InventoryException("Transaction with ID " + transaction.getTransactionId() + " already exists");
+            }
+            store.append(transaction);
+            recordTotals(Collections.singletonList(transaction));
+        } catch (IOException e) {
+            throw new InventoryException("Error saving transactions to file", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public void saveAll(Collection<Transaction> transactions) throws InventoryException {
+        Set<String> ids = new HashSet<>();
+        for (Transaction transaction : transactions) {
+            if (transaction == null || transaction.getTransactionId() == null) {
+                throw new InventoryException("Transaction or Transaction ID cannot be null");
+            }
+            if (transaction.getTransactionDate() == null) {
+                throw new InventoryException("Transaction date cannot be null");
+            }
+            if (!ids.add(transaction.getTransactionId())) {
+                throw new InventoryException("Transaction with ID " + transaction.getTransactionId() + " already exists");
+            }
+        }
+        List<Lock> held = locks.getAll(ids);
+        held.forEach(Lock::lock);
+        try {
+            for (Transaction transaction : transactions) {
+                if (store.contains(store.partitionOf(transaction), transaction.getTransactionId())) {
+                    throw new InventoryException("Transaction with ID " + transaction.getTransactionId() + " already exists");
+                }
+            }
+            store.appendAll(transactions);
+            recordTotals(transactions);
+        } catch (IOException e) {
+            throw new InventoryException("Error saving transactions to file", e);
+        } finally {
+            held.forEach(Lock::unlock);
         }
-        transactionMap.put(transaction.getTransactionId(), transaction);
-        saveToFile();
     }
     
     @Override
@@ -45,12 +129,31 @@ public class TransactionDAOImpl implements TransactionDAO {
         if (transactionId == null) {
             throw new InventoryException("Transaction ID cannot be null");
         }
-        return transactionMap.get(transactionId);
+        LocalDate hint = partitionHint(transactionId);
+        if (hint != null && store.hasPartition(hint)) {
+            Transaction transaction = partition(hint).get(transactionId);
+            if (transaction != null) {
+                return transaction;
+            }
+        }
+        for (LocalDate key : store.partitions().descendingSet()) {
+            if (!key.equals(hint)) {
+                Transaction transaction = partition(key).get(transactionId);
+                if (transaction != null) {
+                    return transaction;
+                }
+            }
+        }
+        return null;
     }
     
     @Override
     public List<Transaction> findAll() throws InventoryException {
-        return new ArrayList<>(transactionMap.values());
+        List<Transaction> result = new ArrayList<>();
+        for (LocalDate key : store.partitions()) {
+            result.addAll(partition(key).values());
+        }
+        return result;
     }
     
     @Override
@@ -58,9 +161,15 @@ public class TransactionDAOImpl implements TransactionDAO {
         if (productId == null) {
             throw new InventoryException("Product ID cannot be null");
         }
-        return transactionMap.values().stream()
-                .filter(t -> productId.equals(t.getProductId()))
-                .collect(Collectors.toList());
+        List<Transaction> result = new ArrayList<>();
+        try {
+            for (LocalDate key : store.partitionsFor(productId)) {
+                result.addAll(store.find(key, productId));
+            }
+        } catch (IOException e) {
+            throw new InventoryException("Error loading transactions for product " + productId, e);
+        }
+        return result;
     }
     
     @Override
@@ -68,9 +177,13 @@ public class TransactionDAOImpl implements TransactionDAO {
         if (start == null || end == null) {
             throw new InventoryException("Date range cannot be null");
         }
-        return transactionMap.values().stream()
-                .filter(t -> !t.getTransactionDate().isBefore(start) && !t.getTransactionDate().isAfter(end))
-                .collect(Collectors.toList());
+        List<Transaction> result = new ArrayList<>();
+        for (LocalDate key : store.partitions(start, end)) {
+            partition(key).values().stream()
+                    .filter(t -> !t.getTransactionDate().isBefore(start) && !t.getTransactionDate().isAfter(end))
+                    .forEach(result::add);
+        }
+        return result;
     }
     
     @Override
@@ -78,9 +191,100 @@ public class TransactionDAOImpl implements TransactionDAO {
         if (type == null) {
             throw new InventoryException("Transaction type cannot be null");
         }
-        return transactionMap.values().stream()
-                .filter(t -> type.equals(t.getType()))
-                .collect(Collectors.toList());
+        List<Transaction> result = new ArrayList<>();
+        for (LocalDate key : store.partitions()) {
+            partition(key).values().stream()
+                    .filter(t -> type.equals(t.getType()))
+                    .forEach(result::add);
+        }
+        return result;
+    }
+    
+    /**
+     * The cursor is the date and ID of the last transaction on the page
+     */
+    @Override
+    public Page<Transaction> findPage(String cursor, int limit, boolean newestFirst) throws InventoryException {
+        if (limit <= 0) {
+            throw new InventoryException("Page size must be positive");
+        }
+        LocalDateTime afterTime = null;
+        String afterId = null;
+        if (cursor != null) {
+            int separator = cursor.indexOf(CURSOR_SEPARATOR);
+            try {
+                afterTime = LocalDateTime.parse(cursor.substring(0, Math.max(separator, 0)));
+            } catch (DateTimeParseException e) {
+                throw new InventoryException("Invalid page cursor: " + cursor, e);
+            }
+            afterId = cursor.substring(separator + 1);
+        }
+        List<Transaction> transactions;
+        try {
+            // One extra record tells whether another page follows
+            transactions = store.page(afterTime, afterId, limit + 1, newestFirst);
+        } catch (IOException e) {
+            throw new InventoryException("Error reading transactions", e);
+        }
+        if (transactions.size() <= limit) {
+            return new Page<>(transactions, null);
+        }
+        transactions = new ArrayList<>(transactions.subList(0, limit));
+        Transaction last = transactions.get(limit - 1);
+        return new Page<>(transactions, last.getTransactionDate().toString() + CURSOR_SEPARATOR + last.getTransactionId());
+    }
+    
+    @Override
+    public Stream<Transaction> stream() {
+        return store.partitions().stream().flatMap(key -> {
+            try {
+                return store.load(key).values().stream();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error loading transactions for " + key, e);
+            }
+        });
+    }
+    
+    @Override
+    public long count() throws InventoryException {
+        long count = 0;
+        try {
+            for (LocalDate key : store.partitions()) {
+                count += store.size(key);
+            }
+        } catch (IOException e) {
+            throw new InventoryException("Error counting transactions", e);
+        }
+        return count;
+    }
+    
+    @Override
+    public void forEach(Predicate<Transaction> action) throws InventoryException {
+        forEach(null, null, action);
+    }
+    
+    @Override
+    public void forEach(LocalDateTime start, LocalDateTime end, Predicate<Transaction> action)
+            throws InventoryException {
+        NavigableSet<LocalDate> keys = store.partitions();
+        if (start != null) {
+            keys = keys.tailSet(store.getPeriod().startOf(start), true);
+        }
+        if (end != null) {
+            keys = keys.headSet(store.getPeriod().startOf(end), true);
+        }
+        try {
+            for (LocalDate key : keys) {
+                boolean completed = store.scan(key, t -> (start != null && t.getTransactionDate().isBefore(start))
+                        || (end != null && t.getTransactionDate().isAfter(end))
+                        || action.test(t));
+                if (!completed) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            throw new InventoryException("Error reading transactions", e);
+        }
     }
     
     @Override
@@ -88,25 +292,129 @@ public class TransactionDAOImpl implements TransactionDAO {
         if (transactionId == null) {
             throw new InventoryException("Transaction ID cannot be null");
         }
-        return transactionMap.containsKey(transactionId);
+        return findById(transactionId) != null;
+    }
+    
+    @Override
+    public TransactionTotals getTotals(Transaction.TransactionType type) throws InventoryException {
+        if (type == null) {
+            throw new InventoryException("Transaction type cannot be null");
+        }
+        return totals.get(type);
+    }
+    
+    @Override
+    public TransactionTotals getTotals(Transaction.TransactionType type, LocalDate startDay, LocalDate endDay)
+            throws InventoryException {
+        if (type == null) {
+            throw new InventoryException("Transaction type cannot be null");
+        }
+        if (startDay == null || endDay == null) {
+            throw new InventoryException("Date range cannot be null");
+        }
+        return totals.get(type, startDay, endDay);
+    }
+    
+    /**
+     * Fold stored transactions into the running totals. A failed totals
+     * write is only logged, since the transactions themselves are stored;
+     * the newest partition is recounted on the next start.
+     */
+    private void recordTotals(Collection<Transaction> transactions) {
+        // One at a time, so the log receives each bucket's versions in order
+        synchronized (totals) {
+            Map<String, TransactionTotals> changed = totals.add(transactions);
+            try {
+                totalsLog.putAll(changed);
+            } catch (IOException e) {
+                logger.warning("Could not save transaction totals: %s", e.getMessage());
+            }
+        }
+    }
+    
+    private Map<String, Transaction> partition(LocalDate key) throws InventoryException {
+        try {
+            return store.load(key);
+        } catch (IOException e) {
+            throw new InventoryException("Error loading transactions for " + key, e);
+        }
+    }
+    
+    /**
+     * Derive the partition from an ID of the form TyyyyMMddHHmmss-NNNN
+     */
+    private LocalDate partitionHint(String transactionId) {
+        if (transactionId.length() < 9 || transactionId.charAt(0) != 'T') {
+            return null;
+        }
+        try {
+            return store.getPeriod().startOf(LocalDate.parse(transactionId.substring(1, 9), ID_DATE_FORMAT));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
     }
     
     private void loadFromFile() {
+        PartitionPeriod period = PartitionPeriod.parse(System.getProperty(PERIOD_PROPERTY));
         try {
-            Object data = FileHandler.readFromFile(DATA_FILE);
-            if (data instanceof Map) {
-                transactionMap = (Map<String, Transaction>) data;
+            store = new TimePartitionedLog<>(PARTITION_DIR, codec,
+                    Transaction::getTransactionId, Transaction::getTransactionDate,
+                    Transaction::getProductId, period, CACHED_PARTITIONS);
+            if (store.isEmpty() && FileHandler.fileExists(LEGACY_DATA_FILE)) {
+                migrateLegacyFile();
             }
-        } catch (Exception e) {
-            transactionMap = new HashMap<>();
+            loadTotals();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open transaction store " + PARTITION_DIR, e);
         }
     }
     
-    private void saveToFile() throws InventoryException {
+    /**
+     * Restore the running totals. The newest partition is recounted in case
+     * the last run stopped between storing a transaction and its totals;
+     * with no saved totals (e.g. the first start on existing data) every
+     * partition is.
+     */
+    private void loadTotals() throws IOException {
+        totalsLog = new WriteAheadLog<>(TOTALS_FILE, TOTALS_LOG_DIR, new TransactionTotalsCodec());
+        Map<String, TransactionTotals> saved = totalsLog.recover();
+        totals.replaceFrom(LocalDate.MIN, saved);
+        if (store.isEmpty()) {
+            return;
+        }
+        NavigableSet<LocalDate> recount = store.partitions();
+        if (!saved.isEmpty()) {
+            recount = recount.tailSet(recount.last(), true);
+        }
+        TransactionTotalsIndex counted = new TransactionTotalsIndex();
+        for (LocalDate key : recount) {
+            store.scan(key, t -> {
+                counted.add(Collections.singletonList(t));
+                return true;
+            });
+        }
+        Map<String, TransactionTotals> buckets = counted.buckets();
+        totals.replaceFrom(recount.first(), buckets);
+        totalsLog.putAll(buckets);
+        if (saved.isEmpty() && logger.isInfoEnabled()) {
+            logger.info("Built transaction totals from %d partitions", recount.size());
+        }
+    }
+    
+    /**
+     * Split the old single-file store into partitions and keep it as a backup
+     */
+    private void migrateLegacyFile() {
         try {
-            FileHandler.writeToFile(DATA_FILE, transactionMap);
+            List<Transaction> transactions = new ArrayList<>(SnapshotFile.read(LEGACY_DATA_FILE, codec).values());
+            transactions.sort(Comparator.comparing(Transaction::getTransactionDate));
+            store.appendAll(transactions);
+            if (logger.isInfoEnabled()) {
+                logger.info("Migrated %d transactions to %s", transactions.size(), PARTITION_DIR);
+            }
+            new File(LEGACY_DATA_FILE).renameTo(new File(LEGACY_DATA_FILE + ".migrated"));
         } catch (Exception e) {
-            throw new InventoryException("Error saving transactions to file", e);
+            logger.error("Failed to migrate " + LEGACY_DATA_FILE, e);
         }
     }
 }
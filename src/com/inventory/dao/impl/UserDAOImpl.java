@@ -3,19 +3,27 @@ package com.inventory.dao.impl;
 import com.inventory.dao.UserDAO;
 import com.inventory.model.User;
 import com.inventory.exception.InventoryException;
-import com.inventory.util.FileHandler;
+import com.inventory.dao.codec.UserCodec;
+import com.inventory.dao.storage.SnapshotFile;
+import com.inventory.util.StripedLock;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
 
 /**
- * File-based implementation of UserDAO
+ * File-based implementation of UserDAO.
+ * Safe for concurrent use: reads go to a concurrent map, writes to the
+ * same user are serialized on a striped per-ID lock.
  */
 public class UserDAOImpl implements UserDAO {
     private static final String DATA_FILE = "data/users.dat";
     private static UserDAOImpl instance;
+    private final UserCodec codec = new UserCodec();
     private Map<String, User> userMap;
+    private final StripedLock locks = new StripedLock(16);
     
     private UserDAOImpl() {
-        userMap = new HashMap<>();
+        userMap = new ConcurrentHashMap<>();
         loadFromFile();
         initializeDefaultUser();
     }
@@ -45,14 +53,21 @@ public class UserDAOImpl implements UserDAO {
         if (user == null || user.getUserId() == null) {
             throw new InventoryException("User or User ID cannot be null");
         }
-        if (userMap.containsKey(user.getUserId())) {
-            throw new InventoryException("User with ID " + user.getUserId() + " already exists");
-        }
-        if (usernameExists(user.getUsername())) {
-            throw new InventoryException("Username " + user.getUsername() + " already exists");
+        // Usernames are unique too, so also hold the username's stripe
+        List<Lock> held = locks.getAll(Arrays.asList(user.getUserId(), String.valueOf(user.getUsername())));
+        held.forEach(Lock::lock);
+        try {
+            if (userMap.containsKey(user.getUserId())) {
+                throw new InventoryException("User with ID " + user.getUserId() + " already exists");
+            }
+            if (usernameExists(user.getUsername())) {
+                throw new InventoryException("Username " + user.getUsername() + " already exists");
+            }
+            userMap.put(user.getUserId(), user);
+            saveToFile();
+        } finally {
+            held.forEach(Lock::unlock);
         }
-        userMap.put(user.getUserId(), user);
-        saveToFile();
     }
     
     @Override
@@ -60,11 +75,17 @@ public class UserDAOImpl implements UserDAO {
         if (user == null || user.getUserId() == null) {
             throw new InventoryException("User or User ID cannot be null");
         }
-        if (!userMap.containsKey(user.getUserId())) {
-            throw new InventoryException("User with ID " + user.getUserId() + " not found");
+        Lock lock = locks.get(user.getUserId());
+        lock.lock();
+        try {
+            if (!userMap.containsKey(user.getUserId())) {
+                throw new InventoryException("User with ID " + user.getUserId() + " not found");
+            }
+            userMap.put(user.getUserId(), user);
+            saveToFile();
+        } finally {
+            lock.unlock();
         }
-        userMap.put(user.getUserId(), user);
-        saveToFile();
     }
     
     @Override
@@ -72,11 +93,17 @@ public class UserDAOImpl implements UserDAO {
         if (userId == null) {
             throw new InventoryException("User ID cannot be null");
         }
-        if (!userMap.containsKey(userId)) {
-            throw new InventoryException("User with ID " + userId + " not found");
+        Lock lock = locks.get(userId);
+        lock.lock();
+        try {
+            if (!userMap.containsKey(userId)) {
+                throw new InventoryException("User with ID " + userId + " not found");
+            }
+            userMap.remove(userId);
+            saveToFile();
+        } finally {
+            lock.unlock();
         }
-        userMap.remove(userId);
-        saveToFile();
     }
     
     @Override
@@ -122,18 +149,15 @@ public class UserDAOImpl implements UserDAO {
     
     private void loadFromFile() {
         try {
-            Object data = FileHandler.readFromFile(DATA_FILE);
-            if (data instanceof Map) {
-                userMap = (Map<String, User>) data;
-            }
+            userMap = new ConcurrentHashMap<>(SnapshotFile.read(DATA_FILE, codec));
         } catch (Exception e) {
-            userMap = new HashMap<>();
+            userMap = new ConcurrentHashMap<>();
         }
     }
     
-    private void saveToFile() throws InventoryException {
+    private synchronized void saveToFile() throws InventoryException {
         try {
-            FileHandler.writeToFile(DATA_FILE, userMap);
+            SnapshotFile.write(DATA_FILE, userMap, codec);
         } catch (Exception e) {
             throw new InventoryException("Error saving users to file", e);
         }
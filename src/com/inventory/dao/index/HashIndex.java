@@ -0,0 +1,58 @@
+package com.inventory.dao.index;
+
+import java.util.*;
+
+/**
+ * Case-insensitive hash index from an attribute value to record IDs.
+ * Remembers the value each record was indexed under, so moving a record to
+ * a new value only needs its ID and the new value.
+ * Thread-safe; queries return snapshots.
+ */
+public class HashIndex {
+    private final Map<String, Set<String>> postings = new HashMap<>();
+    private final Map<String, String> keyById = new HashMap<>();
+    
+    /**
+     * Index a record under a value, replacing its previous value; null unindexes it
+     */
+    public synchronized void put(String id, String value) {
+        String key = value == null ? null : fold(value);
+        String previous = keyById.get(id);
+        if (Objects.equals(previous, key)) {
+            return;
+        }
+        remove(id);
+        if (key != null) {
+            postings.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(id);
+            keyById.put(id, key);
+        }
+    }
+    
+    public synchronized void remove(String id) {
+        String previous = keyById.remove(id);
+        if (previous != null) {
+            Set<String> ids = postings.get(previous);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(previous);
+            }
+        }
+    }
+    
+    public synchronized void clear() {
+        postings.clear();
+        keyById.clear();
+    }
+    
+    /**
+     * Get IDs of records indexed under a value, ignoring case
+     */
+    public synchronized Set<String> get(String value) {
+        Set<String> ids = postings.get(fold(value));
+        return ids == null ? Collections.emptySet() : Collections.unmodifiableSet(new LinkedHashSet<>(ids));
+    }
+    
+    private static String fold(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,110 @@
+package com.inventory.dao.index;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Running stock value (price x quantity), overall and per category.
+ * The DAO reports every product write, and only the difference from the
+ * product's previous contribution is applied. Sums are kept as exact
+ * decimals so endless small adjustments never drift; the overall total
+ * is also published as a plain double, readable without locking.
+ * Categories are grouped ignoring case, like the category index.
+ * Thread-safe.
+ */
+public class InventoryValueIndex {
+    private final Map<String, Contribution> byId = new HashMap<>();
+    private final Map<String, CategoryValue> byCategory = new HashMap<>();
+    private BigDecimal total = BigDecimal.ZERO;
+    private volatile double totalValue;
+    
+    /**
+     * Value a product adds and the category it adds it to
+     */
+    private static class Contribution {
+        final String categoryKey;
+        final BigDecimal value;
+        
+        Contribution(String categoryKey, BigDecimal value) {
+            this.categoryKey = categoryKey;
+            this.value = value;
+        }
+    }
+    
+    private static class CategoryValue {
+        final String name;
+        BigDecimal value = BigDecimal.ZERO;
+        int products;
+        
+        CategoryValue(String name) {
+            this.name = name;
+        }
+    }
+    
+    /**
+     * Set a product's contribution, replacing its previous one
+     */
+    public synchronized void put(String id, String category, double price, int quantity) {
+        String name = category == null ? "" : category;
+        String key = name.toLowerCase(Locale.ROOT);
+        BigDecimal value = BigDecimal.valueOf(price).multiply(BigDecimal.valueOf(quantity));
+        Contribution previous = byId.get(id);
+        if (previous != null && previous.categoryKey.equals(key) && previous.value.compareTo(value) == 0) {
+            return;
+        }
+        remove(id);
+        byId.put(id, new Contribution(key, value));
+        CategoryValue categoryValue = byCategory.computeIfAbsent(key, k -> new CategoryValue(name));
+        categoryValue.value = categoryValue.value.add(value);
+        categoryValue.products++;
+        total = total.add(value);
+        totalValue = total.doubleValue();
+    }
+    
+    public synchronized void remove(String id) {
+        Contribution previous = byId.remove(id);
+        if (previous == null) {
+            return;
+        }
+        CategoryValue categoryValue = byCategory.get(previous.categoryKey);
+        categoryValue.value = categoryValue.value.subtract(previous.value);
+        if (--categoryValue.products == 0) {
+            byCategory.remove(previous.categoryKey);
+        }
+        total = total.subtract(previous.value);
+        totalValue = total.doubleValue();
+    }
+    
+    public synchronized void clear() {
+        byId.clear();
+        byCategory.clear();
+        total = BigDecimal.ZERO;
+        totalValue = 0;
+    }
+    
+    /**
+     * Get the value of all stock
+     */
+    public double total() {
+        return totalValue;
+    }
+    
+    /**
+     * Get the value of a category's stock, ignoring case
+     */
+    public synchronized double get(String category) {
+        CategoryValue categoryValue = byCategory.get(category.toLowerCase(Locale.ROOT));
+        return categoryValue == null ? 0 : categoryValue.value.doubleValue();
+    }
+    
+    /**
+     * Get the value of every category's stock, by category name
+     */
+    public synchronized SortedMap<String, Double> byCategory() {
+        SortedMap<String, Double> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (CategoryValue categoryValue : byCategory.values()) {
+            result.put(categoryValue.name, categoryValue.value.doubleValue());
+        }
+        return result;
+    }
+}
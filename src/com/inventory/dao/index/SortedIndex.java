@@ -0,0 +1,117 @@
+package com.inventory.dao.index;
+
+import com.inventory.model.Page;
+import java.util.*;
+
+/**
+ * Ordered index of record IDs by a sort value, for keyset pagination.
+ * Entries are kept sorted by (value ignoring case, ID), so a page is a
+ * tail-set lookup from the previous page's last entry plus a walk of the
+ * page size, however deep into the listing it is. The entry key itself
+ * is used as the cursor. Runs of digits compare by numeric value, so
+ * P2000 sorts before P10000 and "Item 9" before "Item 10". Thread-safe;
+ * pages are snapshots.
+ */
+public class SortedIndex {
+    private static final char SEPARATOR = '\u0000';
+    
+    private final NavigableSet<String> entries = new TreeSet<>(SortedIndex::compareNatural);
+    private final Map<String, String> entryById = new HashMap<>();
+    
+    /**
+     * Index a record under a sort value, replacing its previous value
+     */
+    public synchronized void put(String id, String value) {
+        String entry = (value == null ? "" : value.toLowerCase(Locale.ROOT)) + SEPARATOR + id;
+        String previous = entryById.put(id, entry);
+        if (previous != null && !previous.equals(entry)) {
+            entries.remove(previous);
+        }
+        entries.add(entry);
+    }
+    
+    public synchronized void remove(String id) {
+        String previous = entryById.remove(id);
+        if (previous != null) {
+            entries.remove(previous);
+        }
+    }
+    
+    public synchronized void clear() {
+        entries.clear();
+        entryById.clear();
+    }
+    
+    /**
+     * Get up to limit IDs following a cursor (null for the first page)
+     */
+    public synchronized Page<String> page(String cursor, int limit, boolean descending) {
+        NavigableSet<String> view = descending ? entries.descendingSet() : entries;
+        if (cursor != null) {
+            view = view.tailSet(cursor, false);
+        }
+        List<String> ids = new ArrayList<>();
+        String last = null;
+        Iterator<String> it = view.iterator();
+        while (ids.size() < limit && it.hasNext()) {
+            last = it.next();
+            ids.add(last.substring(last.lastIndexOf(SEPARATOR) + 1));
+        }
+        return new Page<>(ids, it.hasNext() ? last : null);
+    }
+    
+    /**
+     * Compare strings character by character, except that digit runs at
+     * the same position compare as numbers; strings equal that way (e.g.
+     * "P07" and "P7") fall back to plain order, keeping the order total
+     */
+    static int compareNatural(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            char ca = a.charAt(i);
+            char cb = b.charAt(j);
+            if (isDigit(ca) && isDigit(cb)) {
+                int startA = i;
+                int startB = j;
+                while (startA < a.length() - 1 && a.charAt(startA) == '0' && isDigit(a.charAt(startA + 1))) {
+                    startA++;
+                }
+                while (startB < b.length() - 1 && b.charAt(startB) == '0' && isDigit(b.charAt(startB + 1))) {
+                    startB++;
+                }
+                i = startA;
+                j = startB;
+                while (i < a.length() && isDigit(a.charAt(i))) {
+                    i++;
+                }
+                while (j < b.length() && isDigit(b.charAt(j))) {
+                    j++;
+                }
+                // Without leading zeros, the longer run is the larger number
+                int c = Integer.compare(i - startA, j - startB);
+                if (c != 0) {
+                    return c;
+                }
+                for (int k = 0; k < i - startA; k++) {
+                    c = Character.compare(a.charAt(startA + k), b.charAt(startB + k));
+                    if (c != 0) {
+                        return c;
+                    }
+                }
+            } else {
+                if (ca != cb) {
+                    return Character.compare(ca, cb);
+                }
+                i++;
+                j++;
+            }
+        }
+        int c = Integer.compare(a.length() - i, b.length() - j);
+        return c != 0 ? c : a.compareTo(b);
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,56 @@
+package com.inventory.dao.index;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Live membership sets of low-stock and out-of-stock products.
+ * Kept current by the DAO whenever a product's quantity or minimum stock
+ * level is written, so listing low stock costs O(low-stock items).
+ * Thread-safe; queries return snapshots.
+ */
+public class StockLevelIndex {
+    private final Set<String> lowStock = new LinkedHashSet<>();
+    private final Set<String> outOfStock = new LinkedHashSet<>();
+    
+    /**
+     * Re-evaluate a product's membership after a write
+     */
+    public synchronized void update(String productId, int quantity, int minStockLevel) {
+        if (quantity <= minStockLevel) {
+            lowStock.add(productId);
+        } else {
+            lowStock.remove(productId);
+        }
+        if (quantity == 0) {
+            outOfStock.add(productId);
+        } else {
+            outOfStock.remove(productId);
+        }
+    }
+    
+    public synchronized void remove(String productId) {
+        lowStock.remove(productId);
+        outOfStock.remove(productId);
+    }
+    
+    public synchronized void clear() {
+        lowStock.clear();
+        outOfStock.clear();
+    }
+    
+    /**
+     * Get IDs of products at or below their minimum stock level
+     */
+    public synchronized Set<String> lowStock() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(lowStock));
+    }
+    
+    /**
+     * Get IDs of products with no stock left
+     */
+    public synchronized Set<String> outOfStock() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(outOfStock));
+    }
+}
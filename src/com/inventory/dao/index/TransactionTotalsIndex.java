@@ -0,0 +1,97 @@
+package com.inventory.dao.index;
+
+import com.inventory.model.Transaction;
+import com.inventory.model.Transaction.TransactionType;
+import com.inventory.model.TransactionTotals;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Running transaction totals per type, overall and per calendar day.
+ * Kept current by the DAO on every save, so the all-time total of a type
+ * costs O(1) and a total over a range of days O(days in range).
+ * Day buckets are keyed {@code yyyy-MM-dd|TYPE} for persistence.
+ * Thread-safe; totals are immutable values.
+ */
+public class TransactionTotalsIndex {
+    private static final char KEY_SEPARATOR = '|';
+    
+    private final Map<TransactionType, TransactionTotals> overall = new EnumMap<>(TransactionType.class);
+    private final NavigableMap<LocalDate, Map<TransactionType, TransactionTotals>> days = new TreeMap<>();
+    
+    /**
+     * Add transactions to the totals
+     *
+     * @return the updated day buckets by key
+     */
+    public synchronized Map<String, TransactionTotals> add(Collection<Transaction> transactions) {
+        Map<String, TransactionTotals> changed = new LinkedHashMap<>();
+        for (Transaction t : transactions) {
+            if (t.getType() == null || t.getTransactionDate() == null) {
+                continue;
+            }
+            LocalDate day = t.getTransactionDate().toLocalDate();
+            TransactionTotals bucket = days.computeIfAbsent(day, k -> new EnumMap<>(TransactionType.class))
+                    .merge(t.getType(), TransactionTotals.EMPTY.plus(t), TransactionTotals::plus);
+            overall.merge(t.getType(), TransactionTotals.EMPTY.plus(t), TransactionTotals::plus);
+            changed.put(key(day, t.getType()), bucket);
+        }
+        return changed;
+    }
+    
+    /**
+     * Replace every bucket from a day onwards, e.g. with totals recounted
+     * from the stored transactions
+     */
+    public synchronized void replaceFrom(LocalDate from, Map<String, TransactionTotals> buckets) {
+        days.tailMap(from, true).clear();
+        for (Map.Entry<String, TransactionTotals> entry : buckets.entrySet()) {
+            String key = entry.getKey();
+            int separator = key.indexOf(KEY_SEPARATOR);
+            LocalDate day = LocalDate.parse(key.substring(0, separator));
+            TransactionType type = TransactionType.valueOf(key.substring(separator + 1));
+            days.computeIfAbsent(day, k -> new EnumMap<>(TransactionType.class)).put(type, entry.getValue());
+        }
+        overall.clear();
+        for (Map<TransactionType, TransactionTotals> day : days.values()) {
+            day.forEach((type, totals) -> overall.merge(type, totals, TransactionTotals::plus));
+        }
+    }
+    
+    /**
+     * Get all day buckets by key
+     */
+    public synchronized Map<String, TransactionTotals> buckets() {
+        Map<String, TransactionTotals> result = new LinkedHashMap<>();
+        days.forEach((day, totals) -> totals.forEach((type, t) -> result.put(key(day, type), t)));
+        return result;
+    }
+    
+    /**
+     * Get the all-time totals of a type
+     */
+    public synchronized TransactionTotals get(TransactionType type) {
+        return overall.getOrDefault(type, TransactionTotals.EMPTY);
+    }
+    
+    /**
+     * Get the totals of a type over an inclusive range of days
+     */
+    public synchronized TransactionTotals get(TransactionType type, LocalDate from, LocalDate to) {
+        TransactionTotals result = TransactionTotals.EMPTY;
+        if (from.isAfter(to)) {
+            return result;
+        }
+        for (Map<TransactionType, TransactionTotals> day : days.subMap(from, true, to, true).values()) {
+            TransactionTotals totals = day.get(type);
+            if (totals != null) {
+                result = result.plus(totals);
+            }
+        }
+        return result;
+    }
+    
+    private static String key(LocalDate day, TransactionType type) {
+        return day.toString() + KEY_SEPARATOR + type.name();
+    }
+}
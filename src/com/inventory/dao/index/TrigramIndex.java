@@ -0,0 +1,119 @@
+package com.inventory.dao.index;
+
+import java.util.*;
+
+/**
+ * Case-insensitive substring index over short texts such as names.
+ * Every text is split into overlapping 3-character grams. A query is
+ * answered by intersecting the posting lists of its own grams, starting
+ * from the shortest, and verifying each candidate against the indexed
+ * text. Queries shorter than one gram fall back to a scan that compares
+ * in place without allocating. Thread-safe.
+ */
+public class TrigramIndex {
+    private static final int GRAM = 3;
+    
+    private final Map<Long, Set<String>> postings = new HashMap<>();
+    private final Map<String, String> textById = new LinkedHashMap<>();
+    
+    /**
+     * Index a record's text, replacing any previous text; null unindexes it
+     */
+    public synchronized void put(String id, String text) {
+        String previous = textById.get(id);
+        if (Objects.equals(previous, text)) {
+            return;
+        }
+        remove(id);
+        if (text == null) {
+            return;
+        }
+        textById.put(id, text);
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            postings.computeIfAbsent(gram(text, i), k -> new HashSet<>()).add(id);
+        }
+    }
+    
+    public synchronized void remove(String id) {
+        String previous = textById.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM <= previous.length(); i++) {
+            Long key = gram(previous, i);
+            Set<String> ids = postings.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+    
+    public synchronized void clear() {
+        postings.clear();
+        textById.clear();
+    }
+    
+    /**
+     * Get IDs of records whose text contains the query, ignoring case
+     */
+    public synchronized List<String> search(String query) {
+        List<String> result = new ArrayList<>();
+        if (query.length() < GRAM) {
+            for (Map.Entry<String, String> entry : textById.entrySet()) {
+                if (containsIgnoreCase(entry.getValue(), query)) {
+                    result.add(entry.getKey());
+                }
+            }
+            return result;
+        }
+        
+        List<Set<String>> lists = new ArrayList<>(query.length() - GRAM + 1);
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            Set<String> ids = postings.get(gram(query, i));
+            if (ids == null) {
+                return result;
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        
+        Set<String> smallest = lists.get(0);
+        for (String id : smallest) {
+            boolean candidate = true;
+            for (int i = 1; i < lists.size() && candidate; i++) {
+                candidate = lists.get(i).contains(id);
+            }
+            // Grams may match out of order, so confirm the real substring
+            if (candidate && containsIgnoreCase(textById.get(id), query)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+    
+    private static Long gram(String text, int start) {
+        return ((long) fold(text.charAt(start)) << 32)
+                | ((long) fold(text.charAt(start + 1)) << 16)
+                | fold(text.charAt(start + 2));
+    }
+    
+    /**
+     * Fold a character the same way String.regionMatches(true, ...) compares it
+     */
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+    
+    private static boolean containsIgnoreCase(String text, String query) {
+        int last = text.length() - query.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, query, 0, query.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
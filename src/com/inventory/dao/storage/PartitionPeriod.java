@@ -0,0 +1,62 @@
+package com.inventory.dao.storage;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Length of the time slices used to partition time-ordered records
+ */
+public enum PartitionPeriod {
+    DAY, WEEK, MONTH;
+    
+    /**
+     * Get the first day of the partition containing the given time
+     */
+    public LocalDate startOf(LocalDateTime time) {
+        return startOf(time.toLocalDate());
+    }
+    
+    /**
+     * Get the first day of the partition containing the given date
+     */
+    public LocalDate startOf(LocalDate date) {
+        switch (this) {
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return date.withDayOfMonth(1);
+            default:
+                return date;
+        }
+    }
+    
+    /**
+     * Get the first day of the partition following the one starting at the given date
+     */
+    public LocalDate next(LocalDate start) {
+        switch (this) {
+            case WEEK:
+                return start.plusWeeks(1);
+            case MONTH:
+                return start.plusMonths(1);
+            default:
+                return start.plusDays(1);
+        }
+    }
+    
+    /**
+     * Parse a period name, falling back to DAY when it is missing or unknown
+     */
+    public static PartitionPeriod parse(String name) {
+        if (name != null) {
+            for (PartitionPeriod period : values()) {
+                if (period.name().equalsIgnoreCase(name.trim())) {
+                    return period;
+                }
+            }
+        }
+        return DAY;
+    }
+}
@@ -0,0 +1,13 @@
+package com.inventory.dao.storage;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Converts a value to and from its on-disk record representation
+ */
+public interface RecordCodec<T> {
+    void write(T value, DataOutputStream out) throws IOException;
+    T read(DataInputStream in) throws IOException;
+}
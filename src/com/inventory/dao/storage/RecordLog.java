@@ -0,0 +1,155 @@
+package com.inventory.dao.storage;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of length-prefixed, checksummed records.
+ * Each record is stored as [int length][int crc32][body]. A torn record at
+ * the tail (e.g. after a crash in the middle of a write) ends the log.
+ */
+public class RecordLog implements Closeable {
+    private static final int HEADER_SIZE = 8;
+    
+    private final File file;
+    private final DataOutputStream out;
+    private final CRC32 crc = new CRC32();
+    private long size;
+    private long flushedSize;
+    
+    /**
+     * Callback receiving each intact record body in file order
+     */
+    public interface RecordVisitor {
+        void visit(byte[] body) throws IOException;
+    }
+    
+    /**
+     * Callback receiving record bodies in file order; returning false stops the scan
+     */
+    public interface RecordScanner {
+        boolean visit(byte[] body) throws IOException;
+    }
+    
+    private RecordLog(File file, long size) throws IOException {
+        this.file = file;
+        this.size = size;
+        this.flushedSize = size;
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+    }
+    
+    /**
+     * Open a log for appending, discarding any torn record at its tail
+     */
+    public static RecordLog open(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        long validLength = file.exists() ? read(file, body -> { }) : 0L;
+        if (file.exists() && file.length() > validLength) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+        return new RecordLog(file, validLength);
+    }
+    
+    /**
+     * Read every intact record of a log file
+     *
+     * @return length in bytes of the intact prefix of the file
+     */
+    public static long read(File file, RecordVisitor visitor) throws IOException {
+        return scan(file, body -> {
+            visitor.visit(body);
+            return true;
+        });
+    }
+    
+    /**
+     * Read intact records of a log file until the scanner asks to stop
+     *
+     * @return length in bytes of the intact prefix read
+     */
+    public static long scan(File file, RecordScanner scanner) throws IOException {
+        return scan(file, Long.MAX_VALUE, scanner);
+    }
+    
+    /**
+     * Read intact records within the first limit bytes of a log file until
+     * the scanner asks to stop, e.g. only what a writer has flushed
+     *
+     * @return length in bytes of the intact prefix read
+     */
+    public static long scan(File file, long limit, RecordScanner scanner) throws IOException {
+        if (!file.exists()) {
+            return 0L;
+        }
+        long valid = 0L;
+        CRC32 check = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            long remaining = Math.min(file.length(), limit);
+            while (remaining >= HEADER_SIZE) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length < 0 || length > remaining - HEADER_SIZE) {
+                    break;
+                }
+                byte[] body = new byte[length];
+                in.readFully(body);
+                check.reset();
+                check.update(body, 0, length);
+                if ((int) check.getValue() != checksum) {
+                    break;
+                }
+                valid += HEADER_SIZE + length;
+                remaining -= HEADER_SIZE + length;
+                if (!scanner.visit(body)) {
+                    break;
+                }
+            }
+        }
+        return valid;
+    }
+    
+    /**
+     * Append a record; it is buffered until {@link #flush()}
+     */
+    public void append(byte[] body) throws IOException {
+        crc.reset();
+        crc.update(body, 0, body.length);
+        out.writeInt(body.length);
+        out.writeInt((int) crc.getValue());
+        out.write(body);
+        size += HEADER_SIZE + body.length;
+    }
+    
+    public void flush() throws IOException {
+        out.flush();
+        flushedSize = size;
+    }
+    
+    public long size() {
+        return size;
+    }
+    
+    /**
+     * Get the length of the log as of the last flush; every record within
+     * it has been written to the file
+     */
+    public long flushedSize() {
+        return flushedSize;
+    }
+    
+    public File getFile() {
+        return file;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
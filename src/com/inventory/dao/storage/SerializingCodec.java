@@ -0,0 +1,31 @@
+package com.inventory.dao.storage;
+
+import java.io.*;
+
+/**
+ * Record codec backed by standard Java serialization
+ */
+public class SerializingCodec<T extends Serializable> implements RecordCodec<T> {
+    private final Class<T> type;
+    
+    public SerializingCodec(Class<T> type) {
+        this.type = type;
+    }
+    
+    @Override
+    public void write(T value, DataOutputStream out) throws IOException {
+        ObjectOutputStream oos = new ObjectOutputStream(out);
+        oos.writeObject(value);
+        oos.flush();
+    }
+    
+    @Override
+    public T read(DataInputStream in) throws IOException {
+        try {
+            ObjectInputStream ois = new ObjectInputStream(in);
+            return type.cast(ois.readObject());
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Cannot deserialize " + type.getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.inventory.dao.storage;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Whole-map snapshot files written with a record codec.
+ * Layout: [int magic][byte version] then per entry [true][UTF key][record],
+ * terminated by [false]. Files written by the old ObjectOutputStream-based
+ * persistence are detected by their stream header and still readable.
+ */
+public final class SnapshotFile {
+    private static final int MAGIC = 0x494E5653; // "INVS"
+    private static final int VERSION = 1;
+    private static final int STREAM_MAGIC = 0xACED;
+    
+    private SnapshotFile() {
+    }
+    
+    /**
+     * Write all entries of a map to a snapshot file
+     */
+    public static <V> void write(String filename, Map<String, V> data, RecordCodec<V> codec) throws IOException {
+        File file = new File(filename);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            for (Map.Entry<String, V> entry : data.entrySet()) {
+                out.writeBoolean(true);
+                out.writeUTF(entry.getKey());
+                codec.write(entry.getValue(), out);
+            }
+            out.writeBoolean(false);
+        }
+    }
+    
+    /**
+     * Read a snapshot file; a missing file yields an empty map
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> Map<String, V> read(String filename, RecordCodec<V> codec) throws IOException {
+        File file = new File(filename);
+        Map<String, V> data = new HashMap<>();
+        if (!file.exists()) {
+            return data;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file), 64 * 1024))) {
+            in.mark(4);
+            if (in.readUnsignedShort() == STREAM_MAGIC) {
+                in.reset();
+                Object legacy = new ObjectInputStream(in).readObject();
+                if (legacy instanceof Map) {
+                    data.putAll((Map<String, V>) legacy);
+                }
+                return data;
+            }
+            in.reset();
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a snapshot file: " + filename);
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + filename);
+            }
+            while (in.readBoolean()) {
+                String key = in.readUTF();
+                data.put(key, codec.read(in));
+            }
+            return data;
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Cannot read legacy snapshot " + filename, e);
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package com.inventory.dao.storage;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Append-only record store split into one segment file per time period.
+ * The partition directory holds a manifest with the partition period and
+ * one {@code yyyy-MM-dd.seg} file per partition, named after its first day.
+ * Partitions are only read when a query overlaps them, and the most recently
+ * used ones are kept in memory.
+ *
+ * An optional secondary key (e.g. product ID) is indexed at two levels: a
+ * persistent directory index maps each key to the partitions containing it,
+ * and every loaded partition groups its records by key in append order.
+ *
+ * Records can be paged in time order: partitions are already ordered, and
+ * a loaded partition sorts its own records the first time it is paged and
+ * keeps that order current, so no page sorts more than one partition.
+ *
+ * All public methods are thread-safe. Returned sets and lists are copies;
+ * the record map of a loaded partition may be read while appends continue.
+ */
+public class TimePartitionedLog<V> {
+    private static final String MANIFEST_FILE = "manifest.properties";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_FILE = "index.log";
+    private static final int OPEN_LOGS = 4;
+    
+    private final File directory;
+    private final RecordCodec<V> codec;
+    private final Function<V, String> keyOf;
+    private final Function<V, LocalDateTime> timeOf;
+    private final Function<V, String> indexKeyOf;
+    private final PartitionPeriod period;
+    private final NavigableSet<LocalDate> partitions = new TreeSet<>();
+    private final Map<String, NavigableSet<LocalDate>> partitionsByIndexKey = new HashMap<>();
+    private final Map<LocalDate, Partition<V>> loaded;
+    // IDs of partitions checked by contains() without being loaded
+    private final Map<LocalDate, Set<String>> keySets;
+    private final Map<LocalDate, Integer> sizes = new HashMap<>();
+    // Open segments, least recently appended first; reopening one rescans it
+    private final Map<LocalDate, RecordLog> appendLogs = new LinkedHashMap<>(16, 0.75f, true);
+    private RecordLog indexLog;
+    
+    /**
+     * Records of one loaded partition, keyed by ID and grouped by secondary key
+     */
+    private static class Partition<V> {
+        final Map<String, V> records = new ConcurrentHashMap<>();
+        final Map<String, List<V>> byIndexKey = new HashMap<>();
+        NavigableMap<Position, V> ordered;
+    }
+    
+    /**
+     * Place of a record in time order, ties broken by ID
+     */
+    private static class Position implements Comparable<Position> {
+        final LocalDateTime time;
+        final String key;
+        
+        Position(LocalDateTime time, String key) {
+            this.time = time;
+            this.key = key;
+        }
+        
+        @Override
+        public int compareTo(Position other) {
+            int c = time.compareTo(other.time);
+            return c != 0 ? c : key.compareTo(other.key);
+        }
+    }
+    
+    public TimePartitionedLog(String directory, RecordCodec<V> codec, Function<V, String> keyOf,
+                              Function<V, LocalDateTime> timeOf, PartitionPeriod defaultPeriod,
+                              int cachedPartitions) throws IOException {
+        this(directory, codec, keyOf, timeOf, null, defaultPeriod, cachedPartitions);
+    }
+    
+    public TimePartitionedLog(String directory, RecordCodec<V> codec, Function<V, String> keyOf,
+                              Function<V, LocalDateTime> timeOf, Function<V, String> indexKeyOf,
+                              PartitionPeriod defaultPeriod, int cachedPartitions) throws IOException {
+        this.directory = new File(directory);
+        this.codec = codec;
+        this.keyOf = keyOf;
+        this.timeOf = timeOf;
+        this.indexKeyOf = indexKeyOf;
+        this.period = readOrCreateManifest(defaultPeriod);
+        this.loaded = new LinkedHashMap<LocalDate, Partition<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocalDate, Partition<V>> eldest) {
+                return size() > cachedPartitions;
+            }
+        };
+        this.keySets = new LinkedHashMap<LocalDate, Set<String>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocalDate, Set<String>> eldest) {
+                return size() > cachedPartitions;
+            }
+        };
+        scanDirectory();
+        if (indexKeyOf != null) {
+            loadIndex();
+        }
+    }
+    
+    public PartitionPeriod getPeriod() {
+        return period;
+    }
+    
+    public synchronized boolean isEmpty() {
+        return partitions.isEmpty();
+    }
+    
+    /**
+     * Get the partition a record belongs to
+     */
+    public LocalDate partitionOf(V value) {
+        return period.startOf(timeOf.apply(value));
+    }
+    
+    public synchronized boolean hasPartition(LocalDate partition) {
+        return partitions.contains(partition);
+    }
+    
+    /**
+     * Get all partitions, oldest first
+     */
+    public synchronized NavigableSet<LocalDate> partitions() {
+        return Collections.unmodifiableNavigableSet(new TreeSet<>(partitions));
+    }
+    
+    /**
+     * Get the partitions overlapping the inclusive time range, oldest first
+     */
+    public synchronized NavigableSet<LocalDate> partitions(LocalDateTime start, LocalDateTime end) {
+        if (start.isAfter(end)) {
+            return Collections.emptyNavigableSet();
+        }
+        return Collections.unmodifiableNavigableSet(
+                new TreeSet<>(partitions.subSet(period.startOf(start), true, period.startOf(end), true)));
+    }
+    
+    /**
+     * Get the records of a partition keyed by ID, reading it from disk if needed
+     */
+    public synchronized Map<String, V> load(LocalDate partition) throws IOException {
+        return Collections.unmodifiableMap(partition(partition).records);
+    }
+    
+    /**
+     * Get the number of records in a partition; counted once, then kept current
+     */
+    public synchronized int size(LocalDate partition) throws IOException {
+        Integer size = sizes.get(partition);
+        if (size == null) {
+            Partition<V> cached = loaded.get(partition);
+            if (cached != null) {
+                size = cached.records.size();
+            } else {
+                int[] count = {0};
+                RecordLog.read(segmentFile(partition), body -> count[0]++);
+                size = count[0];
+            }
+            sizes.put(partition, size);
+        }
+        return size;
+    }
+    
+    /**
+     * Tell whether a partition holds a record with the given ID. A partition
+     * that is not loaded is read once for its IDs alone, which are then
+     * kept current, so checking a new record does not cache the whole
+     * partition.
+     */
+    public synchronized boolean contains(LocalDate partition, String key) throws IOException {
+        Partition<V> cached = loaded.get(partition);
+        if (cached != null) {
+            return cached.records.containsKey(key);
+        }
+        if (!partitions.contains(partition)) {
+            return false;
+        }
+        Set<String> keys = keySets.get(partition);
+        if (keys == null) {
+            Set<String> fresh = new HashSet<>();
+            RecordLog.read(segmentFile(partition), body -> fresh.add(keyOf.apply(decode(body))));
+            keys = fresh;
+            keySets.put(partition, keys);
+        }
+        return keys.contains(key);
+    }
+    
+    /**
+     * Get the partitions holding records with the given secondary key, oldest first
+     */
+    public synchronized NavigableSet<LocalDate> partitionsFor(String indexKey) {
+        NavigableSet<LocalDate> keys = partitionsByIndexKey.get(indexKey);
+        return keys == null ? Collections.emptyNavigableSet() : Collections.unmodifiableNavigableSet(new TreeSet<>(keys));
+    }
+    
+    /**
+     * Get the records of a partition with the given secondary key, in append order
+     */
+    public synchronized List<V> find(LocalDate partition, String indexKey) throws IOException {
+        List<V> records = partition(partition).byIndexKey.get(indexKey);
+        return records == null ? Collections.emptyList() : new ArrayList<>(records);
+    }
+    
+    /**
+     * Visit the records of a partition in append order, streaming them from
+     * disk without caching the partition
+     *
+     * @param visitor returns false to stop the scan
+     * @return false if the visitor stopped the scan
+     */
+    public boolean scan(LocalDate partition, Predicate<V> visitor) throws IOException {
+        long limit;
+        synchronized (this) {
+            // Appends go on while the scan runs; only flushed records are complete
+            RecordLog open = appendLogs.get(partition);
+            limit = open != null ? open.flushedSize() : segmentFile(partition).length();
+        }
+        boolean[] completed = {true};
+        RecordLog.scan(segmentFile(partition), limit, body -> {
+            completed[0] = visitor.test(decode(body));
+            return completed[0];
+        });
+        return completed[0];
+    }
+    
+    /**
+     * Get up to limit records in time order (ties by ID) following the
+     * record at afterTime/afterKey; a null afterTime starts from the oldest
+     * record, or the newest when descending
+     */
+    public synchronized List<V> page(LocalDateTime afterTime, String afterKey, int limit,
+                                     boolean descending) throws IOException {
+        NavigableSet<LocalDate> keys = descending ? partitions.descendingSet() : partitions;
+        Position after = null;
+        if (afterTime != null) {
+            after = new Position(afterTime, afterKey);
+            keys = keys.tailSet(period.startOf(afterTime), true);
+        }
+        List<V> result = new ArrayList<>();
+        for (LocalDate key : keys) {
+            NavigableMap<Position, V> ordered = ordered(partition(key));
+            if (descending) {
+                ordered = ordered.descendingMap();
+            }
+            if (after != null) {
+                ordered = ordered.tailMap(after, false);
+            }
+            for (V value : ordered.values()) {
+                if (result.size() == limit) {
+                    return result;
+                }
+                result.add(value);
+            }
+        }
+        return result;
+    }
+    
+    private NavigableMap<Position, V> ordered(Partition<V> partition) {
+        if (partition.ordered == null) {
+            partition.ordered = new TreeMap<>();
+            for (V value : partition.records.values()) {
+                partition.ordered.put(positionOf(value), value);
+            }
+        }
+        return partition.ordered;
+    }
+    
+    private Position positionOf(V value) {
+        return new Position(timeOf.apply(value), keyOf.apply(value));
+    }
+    
+    private Partition<V> partition(LocalDate partition) throws IOException {
+        Partition<V> cached = loaded.get(partition);
+        if (cached == null) {
+            Partition<V> fresh = new Partition<>();
+            RecordLog.read(segmentFile(partition), body -> add(fresh, decode(body)));
+            cached = fresh;
+            loaded.put(partition, cached);
+        }
+        return cached;
+    }
+    
+    private void add(Partition<V> partition, V value) {
+        partition.records.put(keyOf.apply(value), value);
+        if (partition.ordered != null) {
+            partition.ordered.put(positionOf(value), value);
+        }
+        if (indexKeyOf != null) {
+            String indexKey = indexKeyOf.apply(value);
+            if (indexKey != null) {
+                partition.byIndexKey.computeIfAbsent(indexKey, k -> new ArrayList<>()).add(value);
+            }
+        }
+    }
+    
+    /**
+     * Append a record to its partition, creating the partition if needed
+     */
+    public synchronized void append(V value) throws IOException {
+        LocalDate partition = partitionOf(value);
+        // Index first: a stale index entry is harmless, a missing one hides the record
+        indexPartition(value, partition);
+        flushIndex();
+        RecordLog log = logFor(partition);
+        log.append(encode(value));
+        log.flush();
+        partitions.add(partition);
+        sizes.computeIfPresent(partition, (k, n) -> n + 1);
+        addKey(partition, value);
+        Partition<V> cached = loaded.get(partition);
+        if (cached != null) {
+            add(cached, value);
+        }
+    }
+    
+    /**
+     * Append a batch of records, flushing each touched partition once,
+     * e.g. a batch of sales or a migration from a single-file store
+     */
+    public synchronized void appendAll(Collection<V> values) throws IOException {
+        for (V value : values) {
+            indexPartition(value, partitionOf(value));
+        }
+        flushIndex();
+        for (V value : values) {
+            LocalDate partition = partitionOf(value);
+            logFor(partition).append(encode(value));
+            partitions.add(partition);
+            sizes.computeIfPresent(partition, (k, n) -> n + 1);
+            addKey(partition, value);
+            Partition<V> cached = loaded.get(partition);
+            if (cached != null) {
+                add(cached, value);
+            }
+        }
+        for (RecordLog log : appendLogs.values()) {
+            log.flush();
+        }
+    }
+    
+    private void addKey(LocalDate partition, V value) {
+        Set<String> keys = keySets.get(partition);
+        if (keys != null) {
+            keys.add(keyOf.apply(value));
+        }
+    }
+    
+    private RecordLog logFor(LocalDate partition) throws IOException {
+        RecordLog log = appendLogs.get(partition);
+        if (log == null) {
+            if (appendLogs.size() >= OPEN_LOGS) {
+                Iterator<RecordLog> eldest = appendLogs.values().iterator();
+                RecordLog evicted = eldest.next();
+                eldest.remove();
+                evicted.close();
+            }
+            log = RecordLog.open(segmentFile(partition));
+            appendLogs.put(partition, log);
+        }
+        return log;
+    }
+    
+    /**
+     * Record in the directory index that a partition holds the record's secondary key
+     */
+    private void indexPartition(V value, LocalDate partition) throws IOException {
+        if (indexKeyOf == null) {
+            return;
+        }
+        String indexKey = indexKeyOf.apply(value);
+        if (indexKey == null) {
+            return;
+        }
+        if (partitionsByIndexKey.computeIfAbsent(indexKey, k -> new TreeSet<>()).add(partition)) {
+            if (indexLog == null) {
+                indexLog = RecordLog.open(new File(directory, INDEX_FILE));
+            }
+            indexLog.append(encodeIndexEntry(indexKey, partition));
+        }
+    }
+    
+    private void flushIndex() throws IOException {
+        if (indexLog != null) {
+            indexLog.flush();
+        }
+    }
+    
+    /**
+     * Load the directory index, rebuilding it from the partitions if it is missing
+     */
+    private void loadIndex() throws IOException {
+        File indexFile = new File(directory, INDEX_FILE);
+        if (indexFile.exists() || partitions.isEmpty()) {
+            RecordLog.read(indexFile, body -> {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+                String indexKey = in.readUTF();
+                partitionsByIndexKey.computeIfAbsent(indexKey, k -> new TreeSet<>())
+                        .add(LocalDate.ofEpochDay(in.readLong()));
+            });
+            return;
+        }
+        indexLog = RecordLog.open(indexFile);
+        for (LocalDate partition : partitions) {
+            Set<String> seen = new HashSet<>();
+            RecordLog.read(segmentFile(partition), body -> {
+                String indexKey = indexKeyOf.apply(decode(body));
+                if (indexKey != null && seen.add(indexKey)) {
+                    partitionsByIndexKey.computeIfAbsent(indexKey, k -> new TreeSet<>()).add(partition);
+                    indexLog.append(encodeIndexEntry(indexKey, partition));
+                }
+            });
+        }
+        indexLog.flush();
+    }
+    
+    private byte[] encodeIndexEntry(String indexKey, LocalDate partition) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(32);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeUTF(indexKey);
+        out.writeLong(partition.toEpochDay());
+        out.flush();
+        return buffer.toByteArray();
+    }
+    
+    private byte[] encode(V value) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(buffer);
+        codec.write(value, out);
+        out.flush();
+        return buffer.toByteArray();
+    }
+    
+    private V decode(byte[] body) throws IOException {
+        return codec.read(new DataInputStream(new ByteArrayInputStream(body)));
+    }
+    
+    private PartitionPeriod readOrCreateManifest(PartitionPeriod defaultPeriod) throws IOException {
+        File manifest = new File(directory, MANIFEST_FILE);
+        Properties properties = new Properties();
+        if (manifest.exists()) {
+            try (InputStream in = new FileInputStream(manifest)) {
+                properties.load(in);
+            }
+            // The period of existing partitions wins over the configured one
+            return PartitionPeriod.parse(properties.getProperty("period"));
+        }
+        directory.mkdirs();
+        properties.setProperty("period", defaultPeriod.name());
+        try (OutputStream out = new FileOutputStream(manifest)) {
+            properties.store(out, "Transaction partition directory");
+        }
+        return defaultPeriod;
+    }
+    
+    private void scanDirectory() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        for (File f : files) {
+            String name = f.getName();
+            try {
+                partitions.add(LocalDate.parse(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+            } catch (DateTimeParseException e) {
+                // not a partition segment
+            }
+        }
+    }
+    
+    private File segmentFile(LocalDate partition) {
+        return new File(directory, partition + SEGMENT_SUFFIX);
+    }
+}
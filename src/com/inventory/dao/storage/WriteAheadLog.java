@@ -0,0 +1,221 @@
+package com.inventory.dao.storage;
+
+import com.inventory.util.ClassLogger;
+import com.inventory.util.Logger;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Log-structured persistence for a keyed map of records.
+ * Every mutation is appended to the current WAL segment, so a write costs
+ * O(record) instead of O(map). Full segments are sealed and folded into the
+ * snapshot file by a background compactor. Recovery loads the snapshot and
+ * replays the remaining segments in order; PUT/REMOVE records are idempotent,
+ * so replaying a segment that was already compacted is harmless.
+ */
+public class WriteAheadLog<V> {
+    private static final ClassLogger logger = Logger.getLogger(WriteAheadLog.class);
+    private static final long DEFAULT_SEGMENT_LIMIT = 4L * 1024 * 1024;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+    
+    private final String snapshotFile;
+    private final File logDirectory;
+    private final RecordCodec<V> codec;
+    private final long segmentLimit;
+    private final ExecutorService compactor;
+    private final AtomicBoolean compacting = new AtomicBoolean(false);
+    private RecordLog segment;
+    private long segmentSeq = 1;
+    
+    public WriteAheadLog(String snapshotFile, String logDirectory, RecordCodec<V> codec) {
+        this(snapshotFile, logDirectory, codec, DEFAULT_SEGMENT_LIMIT);
+    }
+    
+    public WriteAheadLog(String snapshotFile, String logDirectory, RecordCodec<V> codec, long segmentLimit) {
+        this.snapshotFile = snapshotFile;
+        this.logDirectory = new File(logDirectory);
+        this.codec = codec;
+        this.segmentLimit = segmentLimit;
+        this.compactor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "wal-compactor-" + this.logDirectory.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Rebuild the map from the snapshot plus the WAL tail
+     */
+    public synchronized Map<String, V> recover() throws IOException {
+        // Set first, so writes after a failed recovery never land ahead of older segments
+        List<Long> sequences = listSegments();
+        if (!sequences.isEmpty()) {
+            segmentSeq = sequences.get(sequences.size() - 1) + 1;
+        }
+        Map<String, V> data = readSnapshot();
+        for (long seq : sequences) {
+            replay(segmentFile(seq), data);
+        }
+        if (!sequences.isEmpty()) {
+            compactAsync();
+        }
+        return data;
+    }
+    
+    /**
+     * Append an insert or replacement of a record
+     */
+    public synchronized void put(String key, V value) throws IOException {
+        append(encode(OP_PUT, key, value));
+    }
+    
+    /**
+     * Append inserts or replacements of several records with a single flush
+     */
+    public synchronized void putAll(Map<String, V> entries) throws IOException {
+        List<byte[]> records = new ArrayList<>(entries.size());
+        for (Map.Entry<String, V> entry : entries.entrySet()) {
+            records.add(encode(OP_PUT, entry.getKey(), entry.getValue()));
+        }
+        append(records);
+    }
+    
+    /**
+     * Append a removal of a record
+     */
+    public synchronized void remove(String key) throws IOException {
+        append(encode(OP_REMOVE, key, null));
+    }
+    
+    /**
+     * Append removals of several records with a single flush
+     */
+    public synchronized void removeAll(Collection<String> keys) throws IOException {
+        List<byte[]> records = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            records.add(encode(OP_REMOVE, key, null));
+        }
+        append(records);
+    }
+    
+    /**
+     * Fold all sealed segments into the snapshot on the background thread
+     */
+    public void compactAsync() {
+        long sealedUpTo;
+        synchronized (this) {
+            sealedUpTo = segmentSeq - 1;
+        }
+        if (sealedUpTo < 1 || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        compactor.execute(() -> {
+            try {
+                compact(sealedUpTo);
+            } catch (Exception e) {
+                logger.error("WAL compaction failed for " + snapshotFile, e);
+            } finally {
+                compacting.set(false);
+            }
+        });
+    }
+    
+    private void append(byte[] record) throws IOException {
+        append(Collections.singletonList(record));
+    }
+    
+    private void append(List<byte[]> records) throws IOException {
+        for (byte[] record : records) {
+            if (segment == null) {
+                segment = RecordLog.open(segmentFile(segmentSeq));
+            }
+            segment.append(record);
+            if (segment.size() >= segmentLimit) {
+                segment.close();
+                segment = null;
+                segmentSeq++;
+                compactAsync();
+            }
+        }
+        if (segment != null) {
+            segment.flush();
+        }
+    }
+    
+    private void compact(long sealedUpTo) throws IOException {
+        Map<String, V> data = readSnapshot();
+        List<Long> compacted = new ArrayList<>();
+        for (long seq : listSegments()) {
+            if (seq <= sealedUpTo) {
+                replay(segmentFile(seq), data);
+                compacted.add(seq);
+            }
+        }
+        if (compacted.isEmpty()) {
+            return;
+        }
+        String tempFile = snapshotFile + ".tmp";
+        SnapshotFile.write(tempFile, data, codec);
+        Files.move(Paths.get(tempFile), Paths.get(snapshotFile),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (long seq : compacted) {
+            segmentFile(seq).delete();
+        }
+    }
+    
+    private Map<String, V> readSnapshot() throws IOException {
+        return SnapshotFile.read(snapshotFile, codec);
+    }
+    
+    private void replay(File file, Map<String, V> data) throws IOException {
+        RecordLog.read(file, body -> {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+            byte op = in.readByte();
+            String key = in.readUTF();
+            if (op == OP_PUT) {
+                data.put(key, codec.read(in));
+            } else if (op == OP_REMOVE) {
+                data.remove(key);
+            }
+        });
+    }
+    
+    private byte[] encode(byte op, String key, V value) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeByte(op);
+        out.writeUTF(key);
+        if (value != null) {
+            codec.write(value, out);
+        }
+        out.flush();
+        return buffer.toByteArray();
+    }
+    
+    private List<Long> listSegments() {
+        List<Long> sequences = new ArrayList<>();
+        File[] files = logDirectory.listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+        if (files != null) {
+            for (File f : files) {
+                String name = f.getName();
+                try {
+                    sequences.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // not a segment file
+                }
+            }
+        }
+        Collections.sort(sequences);
+        return sequences;
+    }
+    
+    private File segmentFile(long seq) {
+        return new File(logDirectory, String.format("%012d%s", seq, SEGMENT_SUFFIX));
+    }
+}
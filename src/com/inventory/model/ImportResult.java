@@ -0,0 +1,60 @@
+package com.inventory.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Summary of a bulk import: counts plus the rejected lines with reasons.
+ * Only the first errors are kept so a badly broken file cannot exhaust
+ * memory; the error count is always exact.
+ */
+public class ImportResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    
+    private int rowsRead;
+    private int imported;
+    private int errorCount;
+    private final List<String> errors = new ArrayList<>();
+    
+    public void addRowsRead(int rows) {
+        rowsRead += rows;
+    }
+    
+    public void addImported(int count) {
+        imported += count;
+    }
+    
+    public void addError(int line, String message) {
+        errorCount++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("Line " + line + ": " + message);
+        }
+    }
+    
+    public int getRowsRead() {
+        return rowsRead;
+    }
+    
+    public int getImported() {
+        return imported;
+    }
+    
+    public int getErrorCount() {
+        return errorCount;
+    }
+    
+    /**
+     * Get the first errors in file order, each prefixed with its line number
+     */
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ImportResult[Rows=%d, Imported=%d, Errors=%d]", rowsRead, imported, errorCount);
+    }
+}
@@ -0,0 +1,34 @@
+package com.inventory.model;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * The cursor identifies the last entry of this page; passing it back to the
+ * same query returns the entries that follow. It is null on the last page.
+ */
+public class Page<T> implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private final List<T> items;
+    private final String nextCursor;
+    
+    public Page(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<T> getItems() {
+        return items;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
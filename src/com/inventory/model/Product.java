@@ -36,6 +36,20 @@ public class Product implements Serializable {
         this.lastModifiedDate = LocalDateTime.now();
     }
     
+    // Copy constructor
+    public Product(Product other) {
+        this.productId = other.productId;
+        this.name = other.name;
+        this.category = other.category;
+        this.price = other.price;
+        this.quantity = other.quantity;
+        this.minStockLevel = other.minStockLevel;
+        this.supplierId = other.supplierId;
+        this.description = other.description;
+        this.createdDate = other.createdDate;
+        this.lastModifiedDate = other.lastModifiedDate;
+    }
+    
     // Default constructor
     public Product() {
         this.createdDate = LocalDateTime.now();
@@ -0,0 +1,45 @@
+package com.inventory.model;
+
+import java.io.Serializable;
+
+/**
+ * One line of a batched sale upload, e.g. from a register's offline buffer
+ */
+public class SaleRequest implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private String productId;
+    private int quantity;
+    private String performedBy;
+    private String remarks;
+    
+    // Constructor
+    public SaleRequest(String productId, int quantity, String performedBy, String remarks) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.performedBy = performedBy;
+        this.remarks = remarks;
+    }
+    
+    // Getters
+    public String getProductId() {
+        return productId;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public String getPerformedBy() {
+        return performedBy;
+    }
+    
+    public String getRemarks() {
+        return remarks;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("SaleRequest[Product=%s, Qty=%d]", productId, quantity);
+    }
+}
@@ -0,0 +1,61 @@
+package com.inventory.model;
+
+import java.io.Serializable;
+
+/**
+ * Outcome of one line of a batched sale: the recorded transaction, or the
+ * reason the line was rejected
+ */
+public class SaleResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private final int line;
+    private final SaleRequest request;
+    private final Transaction transaction;
+    private final String error;
+    
+    private SaleResult(int line, SaleRequest request, Transaction transaction, String error) {
+        this.line = line;
+        this.request = request;
+        this.transaction = transaction;
+        this.error = error;
+    }
+    
+    public static SaleResult success(int line, SaleRequest request, Transaction transaction) {
+        return new SaleResult(line, request, transaction, null);
+    }
+    
+    public static SaleResult failure(int line, SaleRequest request, String error) {
+        return new SaleResult(line, request, null, error);
+    }
+    
+    /**
+     * Get the 1-based position of the line in the batch
+     */
+    public int getLine() {
+        return line;
+    }
+    
+    public SaleRequest getRequest() {
+        return request;
+    }
+    
+    public Transaction getTransaction() {
+        return transaction;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public boolean isSuccess() {
+        return error == null;
+    }
+    
+    @Override
+    public String toString() {
+        return isSuccess()
+                ? String.format("Line %d: OK %s", line, transaction.getTransactionId())
+                : String.format("Line %d: FAILED %s", line, error);
+    }
+}
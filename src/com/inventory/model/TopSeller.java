@@ -0,0 +1,44 @@
+package com.inventory.model;
+
+import java.io.Serializable;
+
+/**
+ * Approximate units sold of one product in a time window.
+ * The true figure lies between quantity - error and quantity.
+ */
+public class TopSeller implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private final String productId;
+    private final long quantity;
+    private final long error;
+    
+    public TopSeller(String productId, long quantity, long error) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.error = error;
+    }
+    
+    public String getProductId() {
+        return productId;
+    }
+    
+    /**
+     * Get the estimated units sold, never below the true figure
+     */
+    public long getQuantity() {
+        return quantity;
+    }
+    
+    /**
+     * Get the maximum overestimate in the quantity
+     */
+    public long getError() {
+        return error;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("TopSeller[Product=%s, Quantity=%d, Error=%d]", productId, quantity, error);
+    }
+}
@@ -0,0 +1,49 @@
+package com.inventory.model;
+
+import java.io.Serializable;
+
+/**
+ * Count, quantity and amount summed over a set of transactions.
+ * Immutable; adding returns a new value.
+ */
+public class TransactionTotals implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    public static final TransactionTotals EMPTY = new TransactionTotals(0, 0, 0.0);
+    
+    private final long count;
+    private final long quantity;
+    private final double amount;
+    
+    public TransactionTotals(long count, long quantity, double amount) {
+        this.count = count;
+        this.quantity = quantity;
+        this.amount = amount;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public long getQuantity() {
+        return quantity;
+    }
+    
+    public double getAmount() {
+        return amount;
+    }
+    
+    public TransactionTotals plus(Transaction transaction) {
+        return new TransactionTotals(count + 1, quantity + transaction.getQuantity(),
+                amount + transaction.getTotalAmount());
+    }
+    
+    public TransactionTotals plus(TransactionTotals other) {
+        return new TransactionTotals(count + other.count, quantity + other.quantity, amount + other.amount);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("TransactionTotals[Count=%d, Quantity=%d, Amount=%.2f]", count, quantity, amount);
+    }
+}
@@ -1,9 +1,11 @@
 package com.inventory.service;
 
 import com.inventory.model.Alert;
+import com.inventory.model.Page;
 import com.inventory.dao.AlertDAO;
 import com.inventory.dao.impl.AlertDAOImpl;
 import com.inventory.exception.InventoryException;
+import com.inventory.util.ClassLogger;
 import com.inventory.util.Logger;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -12,6 +14,7 @@ import java.util.stream.Collectors;
  * Service class for alert management
  */
 public class AlertService {
+    private static final ClassLogger logger = Logger.getLogger(AlertService.class);
     private static AlertService instance;
     private AlertDAO alertDAO;
     
@@ -33,6 +36,13 @@ public class AlertService {
         return alertDAO.findAll();
     }
     
+    /**
+     * Get one page of alerts by creation date; pass the previous page's cursor, or null to start
+     */
+    public Page<Alert> getAlertPage(String cursor, int limit, boolean newestFirst) throws InventoryException {
+        return alertDAO.findPage(cursor, limit, newestFirst);
+    }
+    
     /**
      * Get unresolved alerts
      */
@@ -72,14 +82,16 @@ public class AlertService {
         alert.resolve(userId);
         alertDAO.update(alert);
         
-        Logger.info("Alert resolved: " + alertId + " by user: " + userId);
+        logger.info("Alert resolved: %s by user: %s", alertId, userId);
     }
     
     /**
      * Get alert count
      */
     public int getUnresolvedAlertCount() throws InventoryException {
-        return alertDAO.findUnresolved().size();
+        return (int) alertDAO.stream()
+                .filter(a -> !a.isResolved())
+                .count();
     }
     
     /**
@@ -87,7 +99,7 @@ public class AlertService {
      */
     public void deleteAlert(String alertId) throws InventoryException {
         alertDAO.delete(alertId);
-        Logger.info("Alert deleted: " + alertId);
+        logger.info("Alert deleted: %s", alertId);
     }
     
     /**
@@ -0,0 +1,304 @@
+package com.inventory.service;
+
+import com.inventory.model.Product;
+import com.inventory.model.Transaction;
+import com.inventory.dao.ProductDAO;
+import com.inventory.dao.TransactionDAO;
+import com.inventory.dao.impl.DAOFactory;
+import com.inventory.dao.impl.TransactionDAOImpl;
+import com.inventory.exception.InventoryException;
+import com.inventory.util.ClassLogger;
+import com.inventory.util.Logger;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Service class for exporting records to CSV or JSON Lines files, e.g. for
+ * a nightly BI feed. Records are written one at a time to a buffered file
+ * channel as they are read, so memory stays flat however long the history
+ * is. Output goes to a temporary file that is moved into place when
+ * complete, so readers never see a partial export.
+ */
+public class ExportService {
+    private static final ClassLogger logger = Logger.getLogger(ExportService.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    
+    private static ExportService instance;
+    private ProductDAO productDAO;
+    private TransactionDAO transactionDAO;
+    
+    /**
+     * Output file formats
+     */
+    public enum ExportFormat {
+        CSV, JSONL
+    }
+    
+    private ExportService() {
+        this.productDAO = DAOFactory.getProductDAO();
+        this.transactionDAO = TransactionDAOImpl.getInstance();
+    }
+    
+    public static synchronized ExportService getInstance() {
+        if (instance == null) {
+            instance = new ExportService();
+        }
+        return instance;
+    }
+    
+    /**
+     * Export transactions in date order, optionally limited to an inclusive
+     * date range (null bounds are open)
+     *
+     * @return number of transactions written
+     */
+    public long exportTransactions(String filename, ExportFormat format,
+                                   LocalDateTime start, LocalDateTime end) throws InventoryException {
+        long[] count = {0};
+        export(filename, out -> {
+            if (format == ExportFormat.CSV) {
+                out.write("transactionId,productId,type,quantity,pricePerUnit,totalAmount,"
+                        + "performedBy,transactionDate,supplierId,remarks\n");
+            }
+            IOException[] failure = {null};
+            transactionDAO.forEach(start, end, t -> {
+                try {
+                    writeTransaction(out, format, t);
+                    count[0]++;
+                    return true;
+                } catch (IOException e) {
+                    failure[0] = e;
+                    return false;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        });
+        if (logger.isInfoEnabled()) {
+            logger.info("Exported %d transactions to %s", count[0], filename);
+        }
+        return count[0];
+    }
+    
+    /**
+     * Export the product catalog
+     *
+     * @return number of products written
+     */
+    public long exportProducts(String filename, ExportFormat format) throws InventoryException {
+        long[] count = {0};
+        export(filename, out -> {
+            if (format == ExportFormat.CSV) {
+                out.write("productId,name,category,price,quantity,minStockLevel,"
+                        + "supplierId,description,createdDate,lastModifiedDate\n");
+            }
+            IOException[] failure = {null};
+            productDAO.forEach(p -> {
+                try {
+                    writeProduct(out, format, p);
+                    count[0]++;
+                    return true;
+                } catch (IOException e) {
+                    failure[0] = e;
+                    return false;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        });
+        if (logger.isInfoEnabled()) {
+            logger.info("Exported %d products to %s", count[0], filename);
+        }
+        return count[0];
+    }
+    
+    private interface ExportBody {
+        void write(Writer out) throws IOException, InventoryException;
+    }
+    
+    private void export(String filename, ExportBody body) throws InventoryException {
+        Path target = Paths.get(filename).toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(target.getParent());
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE),
+                         BUFFER_SIZE)) {
+                body.write(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new InventoryException("Error exporting to " + filename + ": " + e.getMessage(), e);
+        } catch (InventoryException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+    }
+    
+    private void writeTransaction(Writer out, ExportFormat format, Transaction t) throws IOException {
+        if (format == ExportFormat.CSV) {
+            out.write(csv(t.getTransactionId()));
+            out.write(',');
+            out.write(csv(t.getProductId()));
+            out.write(',');
+            out.write(csv(t.getType() == null ? null : t.getType().name()));
+            out.write(',');
+            out.write(Integer.toString(t.getQuantity()));
+            out.write(',');
+            out.write(Double.toString(t.getPricePerUnit()));
+            out.write(',');
+            out.write(Double.toString(t.getTotalAmount()));
+            out.write(',');
+            out.write(csv(t.getPerformedBy()));
+            out.write(',');
+            out.write(csv(timestamp(t.getTransactionDate())));
+            out.write(',');
+            out.write(csv(t.getSupplierId()));
+            out.write(',');
+            out.write(csv(t.getRemarks()));
+        } else {
+            out.write("{\"transactionId\":");
+            out.write(json(t.getTransactionId()));
+            out.write(",\"productId\":");
+            out.write(json(t.getProductId()));
+            out.write(",\"type\":");
+            out.write(json(t.getType() == null ? null : t.getType().name()));
+            out.write(",\"quantity\":");
+            out.write(Integer.toString(t.getQuantity()));
+            out.write(",\"pricePerUnit\":");
+            out.write(Double.toString(t.getPricePerUnit()));
+            out.write(",\"totalAmount\":");
+            out.write(Double.toString(t.getTotalAmount()));
+            out.write(",\"performedBy\":");
+            out.write(json(t.getPerformedBy()));
+            out.write(",\"transactionDate\":");
+            out.write(json(timestamp(t.getTransactionDate())));
+            out.write(",\"supplierId\":");
+            out.write(json(t.getSupplierId()));
+            out.write(",\"remarks\":");
+            out.write(json(t.getRemarks()));
+            out.write('}');
+        }
+        out.write('\n');
+    }
+    
+    private void writeProduct(Writer out, ExportFormat format, Product p) throws IOException {
+        if (format == ExportFormat.CSV) {
+            out.write(csv(p.getProductId()));
+            out.write(',');
+            out.write(csv(p.getName()));
+            out.write(',');
+            out.write(csv(p.getCategory()));
+            out.write(',');
+            out.write(Double.toString(p.getPrice()));
+            out.write(',');
+            out.write(Integer.toString(p.getQuantity()));
+            out.write(',');
+            out.write(Integer.toString(p.getMinStockLevel()));
+            out.write(',');
+            out.write(csv(p.getSupplierId()));
+            out.write(',');
+            out.write(csv(p.getDescription()));
+            out.write(',');
+            out.write(csv(timestamp(p.getCreatedDate())));
+            out.write(',');
+            out.write(csv(timestamp(p.getLastModifiedDate())));
+        } else {
+            out.write("{\"productId\":");
+            out.write(json(p.getProductId()));
+            out.write(",\"name\":");
+            out.write(json(p.getName()));
+            out.write(",\"category\":");
+            out.write(json(p.getCategory()));
+            out.write(",\"price\":");
+            out.write(Double.toString(p.getPrice()));
+            out.write(",\"quantity\":");
+            out.write(Integer.toString(p.getQuantity()));
+            out.write(",\"minStockLevel\":");
+            out.write(Integer.toString(p.getMinStockLevel()));
+            out.write(",\"supplierId\":");
+            out.write(json(p.getSupplierId()));
+            out.write(",\"description\":");
+            out.write(json(p.getDescription()));
+            out.write(",\"createdDate\":");
+            out.write(json(timestamp(p.getCreatedDate())));
+            out.write(",\"lastModifiedDate\":");
+            out.write(json(timestamp(p.getLastModifiedDate())));
+            out.write('}');
+        }
+        out.write('\n');
+    }
+    
+    private static String timestamp(LocalDateTime time) {
+        return time == null ? null : time.format(TIMESTAMP_FORMAT);
+    }
+    
+    /**
+     * Quote a CSV field if it contains a separator, quote or line break
+     */
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+    
+    private static String json(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+    
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warning("Could not delete %s: %s", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.inventory.service;
+
+import com.inventory.model.ImportResult;
+import com.inventory.model.Product;
+import com.inventory.dao.ProductDAO;
+import com.inventory.dao.impl.DAOFactory;
+import com.inventory.exception.InventoryException;
+import com.inventory.exception.ValidationException;
+import com.inventory.util.CsvReader;
+import com.inventory.util.IDGenerator;
+import com.inventory.util.ClassLogger;
+import com.inventory.util.Logger;
+import com.inventory.util.Validator;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Service class for bulk product import from CSV files.
+ * The file is streamed in batches: each batch is validated in parallel,
+ * gets a block of product IDs and is saved with a single DAO write, so
+ * memory use does not grow with the file.
+ *
+ * Expected header (any order, case-insensitive; the last three optional):
+ * name,category,price,quantity,minStockLevel,supplierId,description
+ */
+public class ImportService {
+    private static final ClassLogger logger = Logger.getLogger(ImportService.class);
+    private static final int BATCH_SIZE = 5000;
+    private static final String[] REQUIRED_COLUMNS = {"name", "category", "price", "quantity"};
+    
+    private static ImportService instance;
+    private ProductDAO productDAO;
+    private InventoryService inventoryService;
+    
+    /**
+     * One data line of the file and the outcome of validating it
+     */
+    private static class Row {
+        final int line;
+        final List<String> fields;
+        Product product;
+        String error;
+        
+        Row(int line, List<String> fields) {
+            this.line = line;
+            this.fields = fields;
+        }
+    }
+    
+    private ImportService() {
+        this.productDAO = DAOFactory.getProductDAO();
+        this.inventoryService = InventoryService.getInstance();
+    }
+    
+    public static synchronized ImportService getInstance() {
+        if (instance == null) {
+            instance = new ImportService();
+        }
+        return instance;
+    }
+    
+    /**
+     * Import products from a CSV file.
+     * Invalid lines are skipped and reported with their line numbers; valid
+     * lines are committed batch by batch.
+     */
+    public ImportResult importProducts(String filename) throws InventoryException {
+        ImportResult result = new ImportResult();
+        try (CsvReader reader = new CsvReader(new InputStreamReader(
+                new FileInputStream(filename), StandardCharsets.UTF_8))) {
+            List<String> header = reader.readRecord();
+            if (header == null) {
+                throw new InventoryException("Import file is empty: " + filename);
+            }
+            Map<String, Integer> columns = mapColumns(header);
+            
+            List<Row> batch = new ArrayList<>(BATCH_SIZE);
+            List<String> fields;
+            while ((fields = reader.readRecord()) != null) {
+                if (fields.size() == 1 && fields.get(0).trim().isEmpty()) {
+                    continue;
+                }
+                batch.add(new Row(reader.getLineNumber(), fields));
+                if (batch.size() == BATCH_SIZE) {
+                    importBatch(batch, columns, result);
+                    batch.clear();
+                }
+            }
+            importBatch(batch, columns, result);
+        } catch (IOException e) {
+            throw new InventoryException("Error reading import file " + filename + ": " + e.getMessage(), e);
+        }
+        
+        if (logger.isInfoEnabled()) {
+            logger.info("Product import from %s: %d rows, %d imported, %d rejected",
+                    filename, result.getRowsRead(), result.getImported(), result.getErrorCount());
+        }
+        return result;
+    }
+    
+    private void importBatch(List<Row> batch, Map<String, Integer> columns, ImportResult result)
+            throws InventoryException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        result.addRowsRead(batch.size());
+        batch.parallelStream().forEach(row -> parse(row, columns));
+        
+        List<Product> products = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            if (row.error != null) {
+                result.addError(row.line, row.error);
+            } else {
+                products.add(row.product);
+            }
+        }
+        if (products.isEmpty()) {
+            return;
+        }
+        
+        List<String> ids = IDGenerator.generateProductIds(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            products.get(i).setProductId(ids.get(i));
+        }
+        try {
+            productDAO.saveAll(products);
+        } catch (InventoryException e) {
+            throw new InventoryException("Import stopped at line " + batch.get(0).line + " after "
+                    + result.getImported() + " products: " + e.getMessage(), e);
+        }
+        result.addImported(products.size());
+        inventoryService.checkStockAlerts(products);
+    }
+    
+    /**
+     * Validate one line, setting either its product or its error
+     */
+    private void parse(Row row, Map<String, Integer> columns) {
+        try {
+            String name = field(row, columns, "name");
+            String category = field(row, columns, "category");
+            Validator.validateNotEmpty(name, "Product name");
+            Validator.validateNotEmpty(category, "Category");
+            double price = parseDouble(field(row, columns, "price"), "Price");
+            Validator.validatePositive(price, "Price");
+            int quantity = parseInt(field(row, columns, "quantity"), "Quantity");
+            Validator.validateNonNegative(quantity, "Quantity");
+            String minStock = field(row, columns, "minstocklevel");
+            int minStockLevel = minStock.isEmpty() ? 0 : parseInt(minStock, "Minimum stock level");
+            Validator.validateNonNegative(minStockLevel, "Minimum stock level");
+            String supplierId = field(row, columns, "supplierid");
+            
+            row.product = new Product(null, name, category, price, quantity, minStockLevel,
+                    supplierId.isEmpty() ? null : supplierId, field(row, columns, "description"));
+        } catch (ValidationException e) {
+            row.error = e.getMessage();
+        }
+    }
+    
+    private Map<String, Integer> mapColumns(List<String> header) throws InventoryException {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new InventoryException("Import file is missing the '" + column + "' column");
+            }
+        }
+        return columns;
+    }
+    
+    private String field(Row row, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= row.fields.size()) {
+            return "";
+        }
+        return row.fields.get(index).trim();
+    }
+    
+    private int parseInt(String value, String fieldName) throws ValidationException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ValidationException(fieldName + " is not a whole number: '" + value + "'");
+        }
+    }
+    
+    private double parseDouble(String value, String fieldName) throws ValidationException {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new ValidationException(fieldName + " is not a number: '" + value + "'");
+        }
+    }
+}
@@ -1,29 +1,40 @@
 package com.inventory.service;
 
+import com.inventory.model.Page;
 import com.inventory.model.Product;
 import com.inventory.model.Alert;
 import com.inventory.dao.ProductDAO;
 import com.inventory.dao.AlertDAO;
-import com.inventory.dao.impl.ProductDAOImpl;
+import com.inventory.dao.impl.DAOFactory;
 import com.inventory.dao.impl.AlertDAOImpl;
 import com.inventory.exception.InventoryException;
 import com.inventory.exception.ValidationException;
 import com.inventory.util.Validator;
+import com.inventory.util.ClassLogger;
 import com.inventory.util.Logger;
 import com.inventory.util.IDGenerator;
+import com.inventory.util.StripedLock;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
 
 /**
  * Service class for inventory/product management business logic
  */
 public class InventoryService {
+    private static final ClassLogger logger = Logger.getLogger(InventoryService.class);
     private static InventoryService instance;
     private ProductDAO productDAO;
     private AlertDAO alertDAO;
+    private final StripedLock stockLocks = new StripedLock(64);
     
     private InventoryService() {
-        this.productDAO = ProductDAOImpl.getInstance();
+        this.productDAO = DAOFactory.getProductDAO();
         this.alertDAO = AlertDAOImpl.getInstance();
+        seedProductIds();
     }
     
     public static synchronized InventoryService getInstance() {
@@ -33,6 +44,20 @@ public class InventoryService {
         return instance;
     }
     
+    /**
+     * Continue product IDs after the highest one already saved; reads IDs
+     * only, so startup does not load the catalog
+     */
+    private void seedProductIds() {
+        try {
+            for (String productId : productDAO.findAllIds()) {
+                IDGenerator.advanceProductCounter(productId);
+            }
+        } catch (InventoryException e) {
+            logger.error("Failed to read existing product IDs", e);
+        }
+    }
+    
     /**
      * Add a new product to inventory
      */
@@ -53,7 +78,7 @@ public class InventoryService {
         
         // Save product
         productDAO.save(product);
-        Logger.info("Product added: " + product.getName() + " [ID: " + productId + "]");
+        logger.info("Product added: %s [ID: %s]", product.getName(), productId);
         
         // Check and create alert if necessary
         checkAndCreateStockAlert(product);
@@ -69,8 +94,14 @@ public class InventoryService {
         Validator.validatePositive(product.getPrice(), "Price");
         Validator.validateNonNegative(product.getQuantity(), "Quantity");
         
-        productDAO.update(product);
-        Logger.info("Product updated: " + product.getProductId());
+        Lock lock = getStockLock(product.getProductId());
+        lock.lock();
+        try {
+            productDAO.update(product);
+        } finally {
+            lock.unlock();
+        }
+        logger.info("Product updated: %s", product.getProductId());
         
         // Check stock level after update
         checkAndCreateStockAlert(product);
@@ -80,13 +111,20 @@ public class InventoryService {
      * Delete a product
      */
     public void deleteProduct(String productId) throws InventoryException {
-        Product product = productDAO.findById(productId);
-        if (product == null) {
-            throw new InventoryException("Product not found: " + productId);
+        // Under the stock lock, so a sale holding it never sees its product vanish
+        Lock lock = getStockLock(productId);
+        lock.lock();
+        try {
+            Product product = productDAO.findById(productId);
+            if (product == null) {
+                throw new InventoryException("Product not found: " + productId);
+            }
+            
+            productDAO.delete(productId);
+        } finally {
+            lock.unlock();
         }
-        
-        productDAO.delete(productId);
-        Logger.info("Product deleted: " + productId);
+        logger.info("Product deleted: %s", productId);
     }
     
     /**
@@ -100,6 +138,13 @@ public class InventoryService {
         return product;
     }
     
+    /**
+     * Find a product by ID, or null if there is none
+     */
+    public Product findProduct(String productId) throws InventoryException {
+        return productDAO.findById(productId);
+    }
+    
     /**
      * Get all products
      */
@@ -107,6 +152,21 @@ public class InventoryService {
         return productDAO.findAll();
     }
     
+    /**
+     * Stream all products without copying them into a list
+     */
+    public Stream<Product> streamProducts() {
+        return productDAO.stream();
+    }
+    
+    /**
+     * Get one page of products; pass the previous page's cursor, or null to start
+     */
+    public Page<Product> getProductPage(ProductDAO.SortOrder order, String cursor, int limit)
+            throws InventoryException {
+        return productDAO.findPage(order, cursor, limit);
+    }
+    
     /**
      * Search products by name
      */
@@ -121,6 +181,13 @@ public class InventoryService {
         return productDAO.findByCategory(category);
     }
     
+    /**
+     * Get products supplied by a supplier
+     */
+    public List<Product> getProductsBySupplier(String supplierId) throws InventoryException {
+        return productDAO.findBySupplierId(supplierId);
+    }
+    
     /**
      * Get low stock products
      */
@@ -128,6 +195,13 @@ public class InventoryService {
         return productDAO.findLowStockProducts();
     }
     
+    /**
+     * Get out of stock products
+     */
+    public List<Product> getOutOfStockProducts() throws InventoryException {
+        return productDAO.findOutOfStockProducts();
+    }
+    
     /**
      * Add stock to product
      */
@@ -136,12 +210,21 @@ public class InventoryService {
             throw new InventoryException("Quantity must be positive");
         }
         
-        Product product = getProductById(productId);
-        product.addStock(quantity);
-        productDAO.update(product);
+        Product product;
+        Lock lock = getStockLock(productId);
+        lock.lock();
+        try {
+            product = getProductById(productId);
+            product.addStock(quantity);
+            productDAO.update(product);
+        } finally {
+            lock.unlock();
+        }
         
-        Logger.info(String.format("Added %d units to product %s. New quantity: %d", 
-                quantity, productId, product.getQuantity()));
+        if (logger.isInfoEnabled()) {
+            logger.info("Added %d units to product %s. New quantity: %d",
+                    quantity, productId, product.getQuantity());
+        }
         
         // Resolve low stock alerts if applicable
         if (!product.isLowStock()) {
@@ -157,53 +240,136 @@ public class InventoryService {
             throw new InventoryException("Quantity must be positive");
         }
         
-        Product product = getProductById(productId);
-        
-        if (product.getQuantity() < quantity) {
-            throw new InventoryException("Insufficient stock. Available: " + product.getQuantity());
+        Product product;
+        Lock lock = getStockLock(productId);
+        lock.lock();
+        try {
+            product = getProductById(productId);
+            
+            if (product.getQuantity() < quantity) {
+                throw new InventoryException("Insufficient stock. Available: " + product.getQuantity());
+            }
+            
+            product.reduceStock(quantity);
+            productDAO.update(product);
+        } finally {
+            lock.unlock();
         }
         
-        product.reduceStock(quantity);
-        productDAO.update(product);
-        
-        Logger.info(String.format("Reduced %d units from product %s. New quantity: %d", 
-                quantity, productId, product.getQuantity()));
+        if (logger.isInfoEnabled()) {
+            logger.info("Reduced %d units from product %s. New quantity: %d",
+                    quantity, productId, product.getQuantity());
+        }
         
         // Check for low stock
         checkAndCreateStockAlert(product);
     }
     
+    /**
+     * Get the lock serializing stock changes of a product.
+     * Hold it to make a stock check and change atomic with other work;
+     * it is reentrant, so addStock/reduceStock may be called while holding it.
+     */
+    public Lock getStockLock(String productId) {
+        return stockLocks.get(productId);
+    }
+    
+    /**
+     * Get the stock locks of several products in a deadlock-free acquisition order
+     */
+    public List<Lock> getStockLocks(Collection<String> productIds) {
+        return stockLocks.getAll(productIds);
+    }
+    
+    /**
+     * Get every stock lock, in acquisition order; holding them all stops
+     * every stock change
+     */
+    public List<Lock> getAllStockLocks() {
+        return stockLocks.getAll();
+    }
+    
+    /**
+     * Copy every product while holding all stock locks, so the copies show
+     * one moment: no stock change is half-applied across them
+     */
+    public List<Product> snapshotProducts() throws InventoryException {
+        List<Lock> held = stockLocks.getAll();
+        held.forEach(Lock::lock);
+        try {
+            List<Product> copies = new ArrayList<>((int) productDAO.count());
+            productDAO.forEach(p -> copies.add(new Product(p)));
+            return copies;
+        } finally {
+            held.forEach(Lock::unlock);
+        }
+    }
+    
+    /**
+     * Persist stock changes to several products at once; callers hold the
+     * products' stock locks
+     */
+    public void saveStockChanges(Collection<Product> products) throws InventoryException {
+        if (!products.isEmpty()) {
+            productDAO.updateAll(products);
+        }
+    }
+    
+    /**
+     * Create the stock alerts several products call for with a single write
+     */
+    public void checkStockAlerts(Collection<Product> products) {
+        List<Alert> alerts = new ArrayList<>();
+        for (Product product : products) {
+            Alert alert = buildStockAlert(product);
+            if (alert != null) {
+                alerts.add(alert);
+            }
+        }
+        if (alerts.isEmpty()) {
+            return;
+        }
+        try {
+            alertDAO.saveAll(alerts);
+            for (Alert alert : alerts) {
+                logger.warning("Alert created: %s", alert.getMessage());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to create stock alerts", e);
+        }
+    }
+    
     /**
      * Check stock level and create alert if needed
      */
     private void checkAndCreateStockAlert(Product product) {
         try {
-            if (product.isOutOfStock()) {
-                createStockAlert(product, Alert.AlertType.OUT_OF_STOCK, 
-                               Alert.AlertPriority.CRITICAL,
-                               "Product is out of stock: " + product.getName());
-            } else if (product.isLowStock()) {
-                createStockAlert(product, Alert.AlertType.LOW_STOCK,
-                               Alert.AlertPriority.HIGH,
-                               "Low stock alert for: " + product.getName() + 
-                               " (Current: " + product.getQuantity() + ", Min: " + 
-                               product.getMinStockLevel() + ")");
+            Alert alert = buildStockAlert(product);
+            if (alert != null) {
+                alertDAO.save(alert);
+                logger.warning("Alert created: %s", alert.getMessage());
             }
         } catch (Exception e) {
-            Logger.error("Failed to create stock alert", e);
+            logger.error("Failed to create stock alert", e);
         }
     }
     
     /**
-     * Create stock alert
+     * Build the stock alert a product's level calls for, or null if none
      */
-    private void createStockAlert(Product product, Alert.AlertType type, 
-                                 Alert.AlertPriority priority, String message) 
-            throws InventoryException {
-        String alertId = IDGenerator.generateAlertId();
-        Alert alert = new Alert(alertId, type, priority, product.getProductId(), message);
-        alertDAO.save(alert);
-        Logger.warning("Alert created: " + message);
+    private Alert buildStockAlert(Product product) {
+        if (product.isOutOfStock()) {
+            return new Alert(IDGenerator.generateAlertId(), Alert.AlertType.OUT_OF_STOCK,
+                           Alert.AlertPriority.CRITICAL, product.getProductId(),
+                           "Product is out of stock: " + product.getName());
+        } else if (product.isLowStock()) {
+            return new Alert(IDGenerator.generateAlertId(), Alert.AlertType.LOW_STOCK,
+                           Alert.AlertPriority.HIGH, product.getProductId(),
+                           "Low stock alert for: " + product.getName() + 
+                           " (Current: " + product.getQuantity() + ", Min: " + 
+                           product.getMinStockLevel() + ")");
+        }
+        return null;
     }
     
     /**
@@ -222,19 +388,30 @@ public class InventoryService {
     }
     
     /**
-     * Get total inventory value
+     * Get total inventory value; maintained by the DAO, so reading it is O(1)
      */
     public double getTotalInventoryValue() throws InventoryException {
-        List<Product> products = productDAO.findAll();
-        return products.stream()
-                .mapToDouble(Product::getTotalValue)
-                .sum();
+        return productDAO.getTotalValue();
+    }
+    
+    /**
+     * Get the inventory value of one category
+     */
+    public double getInventoryValue(String category) throws InventoryException {
+        return productDAO.getTotalValue(category);
+    }
+    
+    /**
+     * Get the inventory value of every category, by category name
+     */
+    public SortedMap<String, Double> getInventoryValueByCategory() throws InventoryException {
+        return productDAO.getValueByCategory();
     }
     
     /**
      * Get product count
      */
     public int getProductCount() throws InventoryException {
-        return productDAO.findAll().size();
+        return (int) productDAO.count();
     }
 }
@@ -0,0 +1,281 @@
+package com.inventory.service;
+
+import com.inventory.dao.AlertDAO;
+import com.inventory.dao.ChangeListener;
+import com.inventory.dao.ProductDAO;
+import com.inventory.dao.SalesRollupDAO;
+import com.inventory.dao.SupplierDAO;
+import com.inventory.model.Product;
+import com.inventory.model.Transaction;
+import com.inventory.service.ReportService.ReportType;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.BiPredicate;
+
+/**
+ * LRU cache of rendered report text in front of ReportService, keyed by
+ * report type and parameters. Entries are dropped as soon as a DAO reports
+ * a write that could change them:
+ * - product writes drop inventory and low stock reports, and sales
+ *   reports only where a listed product was renamed or deleted
+ * - sales drop the sales reports whose period contains them
+ * - supplier and alert writes drop supplier and alert reports
+ * Bounded by entry count and by total characters; a report too large for
+ * the cache is rendered every time. Thread-safe.
+ */
+public class ReportCache {
+    private final int maxEntries;
+    private final long maxChars;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Bumped on every write affecting a report type; a render that saw a
+    // write happen while it ran is not cached
+    private final long[] generations = new long[ReportType.values().length];
+    private long chars;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    
+    /**
+     * Cache key: report type plus the sales period, if any
+     */
+    static final class Key {
+        final ReportType type;
+        final LocalDateTime start;
+        final LocalDateTime end;
+        
+        private Key(ReportType type, LocalDateTime start, LocalDateTime end) {
+            this.type = type;
+            this.start = start;
+            this.end = end;
+        }
+        
+        static Key of(ReportType type) {
+            return new Key(type, null, null);
+        }
+        
+        static Key sales(LocalDateTime start, LocalDateTime end) {
+            return new Key(ReportType.SALES, start, end);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return type == other.type && Objects.equals(start, other.start) && Objects.equals(end, other.end);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, start, end);
+        }
+    }
+    
+    private static final class Entry {
+        final String text;
+        // Sales reports: the name shown for each listed product, null if deleted
+        final Map<String, String> productNames;
+        
+        Entry(String text, Map<String, String> productNames) {
+            this.text = text;
+            this.productNames = productNames;
+        }
+    }
+    
+    ReportCache(ProductDAO productDAO, SalesRollupDAO rollupDAO, SupplierDAO supplierDAO, AlertDAO alertDAO,
+                int maxEntries, long maxChars) {
+        this.maxEntries = maxEntries;
+        this.maxChars = maxChars;
+        productDAO.addChangeListener(new ChangeListener<Product>() {
+            @Override
+            public void saved(Collection<Product> products) {
+                Map<String, String> names = new HashMap<>();
+                for (Product product : products) {
+                    names.put(product.getProductId(), product.getName());
+                }
+                productsChanged(names);
+            }
+            
+            @Override
+            public void deleted(Collection<String> ids) {
+                Map<String, String> names = new HashMap<>();
+                for (String id : ids) {
+                    names.put(id, null);
+                }
+                productsChanged(names);
+            }
+        });
+        rollupDAO.addChangeListener(new ChangeListener<Transaction>() {
+            @Override
+            public void saved(Collection<Transaction> sales) {
+                salesRecorded(sales);
+            }
+            
+            @Override
+            public void deleted(Collection<String> ids) {
+                invalidate(ReportType.SALES);
+            }
+        });
+        supplierDAO.addChangeListener(invalidating(ReportType.SUPPLIER));
+        alertDAO.addChangeListener(invalidating(ReportType.ALERT));
+    }
+    
+    /**
+     * Get a cached report, counting the hit or miss
+     */
+    synchronized String get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.text;
+    }
+    
+    /**
+     * Get the current generation of a report type; pass it to
+     * {@link #put} once the report is rendered
+     */
+    synchronized long generation(ReportType type) {
+        return generations[type.ordinal()];
+    }
+    
+    /**
+     * Cache a rendered report, unless text is null (too large) or the
+     * data changed since generation was read
+     */
+    synchronized void put(Key key, String text, long generation, Map<String, String> productNames) {
+        if (text == null || text.length() > maxChars || generation != generations[key.type.ordinal()]) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(text, productNames));
+        if (previous != null) {
+            chars -= previous.text.length();
+        }
+        chars += text.length();
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || chars > maxChars) {
+            chars -= eldest.next().text.length();
+            eldest.remove();
+            evictions++;
+        }
+    }
+    
+    /**
+     * Get the length of the largest report the cache will hold
+     */
+    long getMaxChars() {
+        return maxChars;
+    }
+    
+    public synchronized void clear() {
+        entries.clear();
+        chars = 0;
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    public synchronized long getHits() {
+        return hits;
+    }
+    
+    public synchronized long getMisses() {
+        return misses;
+    }
+    
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+    
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+    
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+    
+    private <T> ChangeListener<T> invalidating(ReportType type) {
+        return new ChangeListener<T>() {
+            @Override
+            public void saved(Collection<T> records) {
+                invalidate(type);
+            }
+            
+            @Override
+            public void deleted(Collection<String> ids) {
+                invalidate(type);
+            }
+        };
+    }
+    
+    private synchronized void invalidate(ReportType type) {
+        generations[type.ordinal()]++;
+        removeIf((key, entry) -> key.type == type);
+    }
+    
+    private synchronized void productsChanged(Map<String, String> names) {
+        generations[ReportType.INVENTORY.ordinal()]++;
+        generations[ReportType.LOW_STOCK.ordinal()]++;
+        // Stock changes leave sales figures alone, so a sales render in
+        // flight still gets cached; only entries showing a stale name go
+        removeIf((key, entry) -> {
+            if (key.type != ReportType.SALES) {
+                return key.type == ReportType.INVENTORY || key.type == ReportType.LOW_STOCK;
+            }
+            for (Map.Entry<String, String> name : names.entrySet()) {
+                if (entry.productNames.containsKey(name.getKey())
+                        && !Objects.equals(entry.productNames.get(name.getKey()), name.getValue())) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+    
+    private synchronized void salesRecorded(Collection<Transaction> sales) {
+        if (sales.isEmpty()) {
+            return;
+        }
+        generations[ReportType.SALES.ordinal()]++;
+        LocalDateTime first = null;
+        LocalDateTime last = null;
+        for (Transaction sale : sales) {
+            LocalDateTime date = sale.getTransactionDate();
+            first = first == null || date.isBefore(first) ? date : first;
+            last = last == null || date.isAfter(last) ? date : last;
+        }
+        LocalDateTime batchStart = first;
+        LocalDateTime batchEnd = last;
+        removeIf((key, entry) -> {
+            if (key.type != ReportType.SALES || key.start.isAfter(batchEnd) || key.end.isBefore(batchStart)) {
+                return false;
+            }
+            for (Transaction sale : sales) {
+                LocalDateTime date = sale.getTransactionDate();
+                if (!date.isBefore(key.start) && !date.isAfter(key.end)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+    
+    private void removeIf(BiPredicate<Key, Entry> filter) {
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, Entry> entry = it.next();
+            if (filter.test(entry.getKey(), entry.getValue())) {
+                chars -= entry.getValue().text.length();
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+}
@@ -1,34 +1,71 @@
 package com.inventory.service;
 
 import com.inventory.model.Product;
-import com.inventory.model.Transaction;
+import com.inventory.model.TransactionTotals;
 import com.inventory.model.Supplier;
 import com.inventory.model.Alert;
 import com.inventory.exception.InventoryException;
 import com.inventory.util.FileHandler;
-import java.util.List;
+import com.inventory.util.ClassLogger;
+import com.inventory.util.Logger;
+import com.inventory.dao.impl.AlertDAOImpl;
+import com.inventory.dao.impl.DAOFactory;
+import com.inventory.dao.impl.SalesRollupDAOImpl;
+import com.inventory.dao.impl.SupplierDAOImpl;
+import com.inventory.dao.index.InventoryValueIndex;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.io.IOException;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 
 /**
  * Service class for generating reports and analytics
  */
 public class ReportService {
+    private static final ClassLogger logger = Logger.getLogger(ReportService.class);
     private static ReportService instance;
     private InventoryService inventoryService;
     private TransactionService transactionService;
     private SupplierService supplierService;
     private AlertService alertService;
+    private final ReportCache cache;
     
     private static final DateTimeFormatter DATE_FORMAT = 
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    /** Bounds of the report cache: entries, and characters across all entries */
+    private static final int CACHE_ENTRIES = 64;
+    private static final long CACHE_CHARS = 8 * 1024 * 1024;
+    
+    /** Lists at least this long have their rows formatted in parallel */
+    private static final int PARALLEL_ROW_THRESHOLD = 10000;
+    
+    /** Rows formatted per parallel step, bounding how many lines are held at once */
+    private static final int ROW_CHUNK_SIZE = 4096;
+    
+    /** Workers for combined report runs; parallel row formatting inside a report runs here too */
+    private static final ForkJoinPool REPORT_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    
     private ReportService() {
         this.inventoryService = InventoryService.getInstance();
         this.transactionService = TransactionService.getInstance();
         this.supplierService = SupplierService.getInstance();
         this.alertService = AlertService.getInstance();
+        this.cache = new ReportCache(DAOFactory.getProductDAO(), SalesRollupDAOImpl.getInstance(),
+                SupplierDAOImpl.getInstance(), AlertDAOImpl.getInstance(), CACHE_ENTRIES, CACHE_CHARS);
     }
     
     public static synchronized ReportService getInstance() {
@@ -38,177 +75,544 @@ public class ReportService {
         return instance;
     }
     
+    /**
+     * Reports produced by {@link #generateAllReports(LocalDateTime)}
+     */
+    public enum ReportType {
+        INVENTORY, LOW_STOCK, SALES, SUPPLIER, ALERT
+    }
+    
+    /**
+     * Renders a report to a writer
+     */
+    public interface ReportBody {
+        void write(Writer out) throws IOException, InventoryException;
+    }
+    
     /**
      * Generate inventory status report
      */
     public String generateInventoryReport() throws InventoryException {
-        StringBuilder report = new StringBuilder();
-        report.append("=".repeat(80)).append("\n");
-        report.append("INVENTORY STATUS REPORT\n");
-        report.append("Generated: ").append(LocalDateTime.now().format(DATE_FORMAT)).append("\n");
-        report.append("=".repeat(80)).append("\n\n");
+        return toText(this::writeInventoryReport);
+    }
+    
+    /**
+     * Generate low stock report
+     */
+    public String generateLowStockReport() throws InventoryException {
+        return toText(this::writeLowStockReport);
+    }
+    
+    /**
+     * Generate sales report
+     */
+    public String generateSalesReport(LocalDateTime start, LocalDateTime end) 
+            throws InventoryException {
+        return toText(out -> writeSalesReport(start, end, out));
+    }
+    
+    /**
+     * Generate supplier report
+     */
+    public String generateSupplierReport() throws InventoryException {
+        return toText(this::writeSupplierReport);
+    }
+    
+    /**
+     * Generate alert summary report
+     */
+    public String generateAlertReport() throws InventoryException {
+        return toText(this::writeAlertReport);
+    }
+    
+    /**
+     * Write inventory status report
+     */
+    public void writeInventoryReport(Writer out) throws IOException, InventoryException {
+        writeCached(out, ReportType.INVENTORY, o -> {
+            // Rows go from the store straight to the writer; the catalog is never copied
+            try (Stream<Product> products = inventoryService.streamProducts()) {
+                renderInventoryReport(o, LocalDateTime.now(), inventoryService.getProductCount(),
+                        products.iterator(), inventoryService.getTotalInventoryValue(),
+                        inventoryService.getInventoryValueByCategory());
+            } catch (UncheckedIOException e) {
+                throw new InventoryException("Error reading products for the inventory report", e.getCause());
+            }
+        });
+    }
+    
+    /**
+     * Write low stock report
+     */
+    public void writeLowStockReport(Writer out) throws IOException, InventoryException {
+        writeCached(out, ReportType.LOW_STOCK,
+                o -> renderLowStockReport(o, LocalDateTime.now(), inventoryService.getLowStockProducts()));
+    }
+    
+    /**
+     * Write sales report
+     */
+    public void writeSalesReport(LocalDateTime start, LocalDateTime end, Writer out)
+            throws IOException, InventoryException {
+        ReportCache.Key key = ReportCache.Key.sales(start, end);
+        String cached = cache.get(key);
+        if (cached != null) {
+            out.write(cached);
+            return;
+        }
+        long generation = cache.generation(ReportType.SALES);
+        
+        // Read from the sales rollups, so long periods cost no more than short ones
+        Map<String, TransactionTotals> sales = transactionService.getSalesByProduct(start, end);
+        Map<String, String> names = new HashMap<>();
+        for (String productId : sales.keySet()) {
+            Product product = inventoryService.findProduct(productId);
+            names.put(productId, product == null ? null : product.getName());
+        }
+        CapturingWriter capture = new CapturingWriter(out, cache.getMaxChars());
+        renderSalesReport(capture, LocalDateTime.now(), start, end, sales, names);
+        cache.put(key, capture.getText(), generation, names);
+    }
+    
+    /**
+     * Write supplier report
+     */
+    public void writeSupplierReport(Writer out) throws IOException, InventoryException {
+        writeCached(out, ReportType.SUPPLIER,
+                o -> renderSupplierReport(o, LocalDateTime.now(), supplierService.getAllSuppliers()));
+    }
+    
+    /**
+     * Write alert summary report
+     */
+    public void writeAlertReport(Writer out) throws IOException, InventoryException {
+        writeCached(out, ReportType.ALERT,
+                o -> renderAlertReport(o, LocalDateTime.now(), alertService.getUnresolvedAlerts()));
+    }
+    
+    /**
+     * Generate every report at once from a single snapshot of the data, so
+     * the figures agree with each other (e.g. the low stock report lists
+     * exactly the products the inventory report marks LOW). The reports
+     * are rendered in parallel; the sales report covers salesStart up to
+     * the moment of the snapshot.
+     */
+    public Map<ReportType, String> generateAllReports(LocalDateTime salesStart) throws InventoryException {
+        Snapshot snapshot = takeSnapshot(salesStart);
+        return renderAll(type -> {
+            StringWriter out = new StringWriter();
+            renderFromSnapshot(type, snapshot, out);
+            return out.toString();
+        });
+    }
+    
+    /**
+     * Like {@link #generateAllReports(LocalDateTime)}, but each report is
+     * streamed straight to its own file under reports/
+     *
+     * @return file name of each report
+     */
+    public Map<ReportType, String> saveAllReports(LocalDateTime salesStart) throws InventoryException {
+        Snapshot snapshot = takeSnapshot(salesStart);
+        long stamp = System.currentTimeMillis();
+        return renderAll(type -> {
+            String filename = type.name().toLowerCase().replace("_", "") + "_report_" + stamp + ".txt";
+            writeReportToFile(filename, out -> renderFromSnapshot(type, snapshot, out));
+            return filename;
+        });
+    }
+    
+    /**
+     * Stream a report to reports/filename. The report is written to a
+     * temporary file that is moved into place when complete, so readers
+     * never see a partial report.
+     */
+    public void writeReportToFile(String filename, ReportBody body) throws InventoryException {
+        Path target = Paths.get("reports", filename).toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(target.getParent());
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE),
+                         BUFFER_SIZE)) {
+                body.write(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new InventoryException("Error saving report " + filename + ": " + e.getMessage(), e);
+        } catch (InventoryException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+    }
+    
+    /**
+     * Save already generated report text to reports/filename
+     */
+    public void saveReportToFile(String reportContent, String filename) throws IOException {
+        String fullPath = "reports/" + filename;
+        FileHandler.writeTextToFile(fullPath, reportContent);
+    }
+    
+    /**
+     * Stream a report to standard output
+     */
+    public void printReport(ReportBody body) throws InventoryException {
+        // Not closed: that would close System.out
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            body.write(out);
+            out.flush();
+        } catch (IOException e) {
+            throw new InventoryException("Error printing report: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Get the cache serving the single-report methods, e.g. for its hit rate
+     */
+    public ReportCache getCache() {
+        return cache;
+    }
+    
+    /**
+     * Write a report from the cache, or render it and cache the result
+     */
+    private void writeCached(Writer out, ReportType type, ReportBody body) throws IOException, InventoryException {
+        ReportCache.Key key = ReportCache.Key.of(type);
+        String cached = cache.get(key);
+        if (cached != null) {
+            out.write(cached);
+            return;
+        }
+        long generation = cache.generation(type);
+        CapturingWriter capture = new CapturingWriter(out, cache.getMaxChars());
+        body.write(capture);
+        cache.put(key, capture.getText(), generation, Collections.emptyMap());
+    }
+    
+    /**
+     * Passes text through while keeping a copy, until the copy would
+     * exceed the limit
+     */
+    private static class CapturingWriter extends Writer {
+        private final Writer out;
+        private final long limit;
+        private StringBuilder text = new StringBuilder();
+        
+        CapturingWriter(Writer out, long limit) {
+            this.out = out;
+            this.limit = limit;
+        }
+        
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            out.write(chars, offset, length);
+            if (text != null) {
+                text = text.length() + length > limit ? null : text.append(chars, offset, length);
+            }
+        }
+        
+        @Override
+        public void write(String str, int offset, int length) throws IOException {
+            out.write(str, offset, length);
+            if (text != null) {
+                text = text.length() + length > limit ? null : text.append(str, offset, offset + length);
+            }
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+        
+        /**
+         * Get everything written, or null if it went over the limit
+         */
+        String getText() {
+            return text == null ? null : text.toString();
+        }
+    }
+    
+    private String toText(ReportBody body) throws InventoryException {
+        StringWriter out = new StringWriter();
+        try {
+            body.write(out);
+        } catch (IOException e) {
+            throw new InventoryException("Error generating report: " + e.getMessage(), e);
+        }
+        return out.toString();
+    }
+    
+    /**
+     * One report's share of a combined run
+     */
+    private interface ReportJob<R> {
+        R run(ReportType type) throws IOException, InventoryException;
+    }
+    
+    private <R> Map<ReportType, R> renderAll(ReportJob<R> job) throws InventoryException {
+        Map<ReportType, CompletableFuture<R>> jobs = new EnumMap<>(ReportType.class);
+        for (ReportType type : ReportType.values()) {
+            jobs.put(type, CompletableFuture.supplyAsync(() -> {
+                try {
+                    return job.run(type);
+                } catch (IOException | InventoryException e) {
+                    throw new CompletionException(e);
+                }
+            }, REPORT_POOL));
+        }
         
-        List<Product> products = inventoryService.getAllProducts();
+        Map<ReportType, R> results = new EnumMap<>(ReportType.class);
+        try {
+            for (Map.Entry<ReportType, CompletableFuture<R>> entry : jobs.entrySet()) {
+                results.put(entry.getKey(), entry.getValue().join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof InventoryException) {
+                throw (InventoryException) e.getCause();
+            }
+            throw new InventoryException("Error generating reports: " + e.getCause().getMessage(), e.getCause());
+        }
+        return results;
+    }
+    
+    /**
+     * Data shared by all reports of one combined run
+     */
+    private static class Snapshot {
+        LocalDateTime takenAt;
+        LocalDateTime salesStart;
+        List<Product> products;
+        Map<String, TransactionTotals> sales;
+        List<Supplier> suppliers;
+        List<Alert> alerts;
+    }
+    
+    private Snapshot takeSnapshot(LocalDateTime salesStart) throws InventoryException {
+        Snapshot snapshot = new Snapshot();
+        snapshot.salesStart = salesStart;
+        // Product copies are taken with all stock locks held; the copies
+        // stay fixed while the reports render even if stock moves on.
+        // Sales reach the rollups before their stock lock is released, so
+        // sales up to the time read here match the copied stock exactly.
+        List<Lock> held = inventoryService.getAllStockLocks();
+        held.forEach(Lock::lock);
+        try {
+            snapshot.takenAt = LocalDateTime.now();
+            snapshot.products = inventoryService.snapshotProducts();
+        } finally {
+            held.forEach(Lock::unlock);
+        }
+        snapshot.products.sort(Comparator.comparing(Product::getProductId));
+        snapshot.sales = transactionService.getSalesByProduct(salesStart, snapshot.takenAt);
+        snapshot.suppliers = supplierService.getAllSuppliers();
+        snapshot.alerts = alertService.getUnresolvedAlerts();
+        return snapshot;
+    }
+    
+    private void renderFromSnapshot(ReportType type, Snapshot snapshot, Writer out) throws IOException {
+        switch (type) {
+            case INVENTORY:
+                InventoryValueIndex values = new InventoryValueIndex();
+                for (Product p : snapshot.products) {
+                    values.put(p.getProductId(), p.getCategory(), p.getPrice(), p.getQuantity());
+                }
+                renderInventoryReport(out, snapshot.takenAt, snapshot.products.size(), snapshot.products.iterator(),
+                        values.total(), values.byCategory());
+                break;
+            case LOW_STOCK:
+                renderLowStockReport(out, snapshot.takenAt,
+                        snapshot.products.stream().filter(Product::isLowStock).collect(Collectors.toList()));
+                break;
+            case SALES:
+                Map<String, String> names = new HashMap<>();
+                for (Product p : snapshot.products) {
+                    names.put(p.getProductId(), p.getName());
+                }
+                renderSalesReport(out, snapshot.takenAt, snapshot.salesStart, snapshot.takenAt, snapshot.sales, names);
+                break;
+            case SUPPLIER:
+                renderSupplierReport(out, snapshot.takenAt, snapshot.suppliers);
+                break;
+            case ALERT:
+                renderAlertReport(out, snapshot.takenAt, snapshot.alerts);
+                break;
+        }
+    }
+    
+    private void renderInventoryReport(Writer out, LocalDateTime generated, int productCount, Iterator<Product> products,
+                                       double totalValue, Map<String, Double> valueByCategory) throws IOException {
+        writeHeader(out, "INVENTORY STATUS REPORT", generated);
         
-        report.append(String.format("Total Products: %d\n", products.size()));
-        report.append(String.format("Total Inventory Value: $%.2f\n\n", 
-                inventoryService.getTotalInventoryValue()));
+        out.write(String.format("Total Products: %d\n", productCount));
+        out.write(String.format("Total Inventory Value: $%.2f\n\n", totalValue));
         
-        report.append(String.format("%-10s %-25s %-15s %-10s %-10s %-12s\n",
+        out.write("Value by Category:\n");
+        for (Map.Entry<String, Double> entry : valueByCategory.entrySet()) {
+            out.write(String.format("  %-25s $%.2f\n", truncate(entry.getKey(), 25), entry.getValue()));
+        }
+        out.write("\n");
+        
+        out.write(String.format("%-10s %-25s %-15s %-10s %-10s %-12s\n",
                 "ID", "Name", "Category", "Price", "Qty", "Status"));
-        report.append("-".repeat(80)).append("\n");
+        out.write("-".repeat(80) + "\n");
         
-        for (Product p : products) {
+        writeRows(out, products, productCount >= PARALLEL_ROW_THRESHOLD, p -> {
             String status = p.isOutOfStock() ? "OUT" : (p.isLowStock() ? "LOW" : "OK");
-            report.append(String.format("%-10s %-25s %-15s $%-9.2f %-10d %-12s\n",
+            return String.format("%-10s %-25s %-15s $%-9.2f %-10d %-12s\n",
                     p.getProductId(),
                     truncate(p.getName(), 25),
                     truncate(p.getCategory(), 15),
                     p.getPrice(),
                     p.getQuantity(),
-                    status));
-        }
-        
-        return report.toString();
+                    status);
+        });
     }
     
-    /**
-     * Generate low stock report
-     */
-    public String generateLowStockReport() throws InventoryException {
-        StringBuilder report = new StringBuilder();
-        report.append("=".repeat(80)).append("\n");
-        report.append("LOW STOCK ALERT REPORT\n");
-        report.append("Generated: ").append(LocalDateTime.now().format(DATE_FORMAT)).append("\n");
-        report.append("=".repeat(80)).append("\n\n");
-        
-        List<Product> lowStockProducts = inventoryService.getLowStockProducts();
+    private void renderLowStockReport(Writer out, LocalDateTime generated, List<Product> lowStockProducts)
+            throws IOException {
+        writeHeader(out, "LOW STOCK ALERT REPORT", generated);
         
-        report.append(String.format("Total Low Stock Items: %d\n\n", lowStockProducts.size()));
+        out.write(String.format("Total Low Stock Items: %d\n\n", lowStockProducts.size()));
         
-        report.append(String.format("%-10s %-30s %-10s %-10s %-12s\n",
+        out.write(String.format("%-10s %-30s %-10s %-10s %-12s\n",
                 "ID", "Name", "Current", "Min Level", "Required"));
-        report.append("-".repeat(80)).append("\n");
+        out.write("-".repeat(80) + "\n");
         
-        for (Product p : lowStockProducts) {
+        writeRows(out, lowStockProducts, p -> {
             int required = Math.max(0, p.getMinStockLevel() - p.getQuantity() + 10);
-            report.append(String.format("%-10s %-30s %-10d %-10d %-12d\n",
+            return String.format("%-10s %-30s %-10d %-10d %-12d\n",
                     p.getProductId(),
                     truncate(p.getName(), 30),
                     p.getQuantity(),
                     p.getMinStockLevel(),
-                    required));
-        }
-        
-        return report.toString();
+                    required);
+        });
     }
     
-    /**
-     * Generate sales report
-     */
-    public String generateSalesReport(LocalDateTime start, LocalDateTime end) 
-            throws InventoryException {
-        StringBuilder report = new StringBuilder();
-        report.append("=".repeat(80)).append("\n");
-        report.append("SALES REPORT\n");
-        report.append("Period: ").append(start.format(DATE_FORMAT)).append(" to ")
-              .append(end.format(DATE_FORMAT)).append("\n");
-        report.append("Generated: ").append(LocalDateTime.now().format(DATE_FORMAT)).append("\n");
-        report.append("=".repeat(80)).append("\n\n");
-        
-        List<Transaction> sales = transactionService.getTransactionsByDateRange(start, end).stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.SALE)
-                .collect(java.util.stream.Collectors.toList());
-        
-        double totalSales = sales.stream().mapToDouble(Transaction::getTotalAmount).sum();
-        int totalQuantity = sales.stream().mapToInt(Transaction::getQuantity).sum();
+    private void renderSalesReport(Writer out, LocalDateTime generated, LocalDateTime start, LocalDateTime end,
+                                   Map<String, TransactionTotals> sales, Map<String, String> names)
+            throws IOException {
+        out.write("=".repeat(80) + "\n");
+        out.write("SALES REPORT\n");
+        out.write("Period: " + start.format(DATE_FORMAT) + " to " + end.format(DATE_FORMAT) + "\n");
+        out.write("Generated: " + generated.format(DATE_FORMAT) + "\n");
+        out.write("=".repeat(80) + "\n\n");
         
-        report.append(String.format("Total Transactions: %d\n", sales.size()));
-        report.append(String.format("Total Items Sold: %d\n", totalQuantity));
-        report.append(String.format("Total Sales Amount: $%.2f\n\n", totalSales));
+        TransactionTotals total = TransactionTotals.EMPTY;
+        for (TransactionTotals totals : sales.values()) {
+            total = total.plus(totals);
+        }
         
-        report.append(String.format("%-20s %-12s %-10s %-12s %-15s\n",
-                "Date", "Product ID", "Quantity", "Amount", "Performed By"));
-        report.append("-".repeat(80)).append("\n");
+        out.write(String.format("Total Transactions: %d\n", total.getCount()));
+        out.write(String.format("Total Items Sold: %d\n", total.getQuantity()));
+        out.write(String.format("Total Sales Amount: $%.2f\n\n", total.getAmount()));
         
-        for (Transaction t : sales) {
-            report.append(String.format("%-20s %-12s %-10d $%-11.2f %-15s\n",
-                    t.getTransactionDate().format(DATE_FORMAT),
-                    t.getProductId(),
-                    t.getQuantity(),
-                    t.getTotalAmount(),
-                    truncate(t.getPerformedBy(), 15)));
-        }
+        out.write(String.format("%-12s %-25s %-14s %-10s %-12s\n",
+                "Product ID", "Name", "Transactions", "Quantity", "Amount"));
+        out.write("-".repeat(80) + "\n");
         
-        return report.toString();
+        List<Map.Entry<String, TransactionTotals>> rows = new ArrayList<>(sales.entrySet());
+        rows.sort((a, b) -> Double.compare(b.getValue().getAmount(), a.getValue().getAmount()));
+        writeRows(out, rows, row -> String.format("%-12s %-25s %-14d %-10d $%-11.2f\n",
+                row.getKey(),
+                truncate(Objects.requireNonNullElse(names.get(row.getKey()), "(deleted)"), 25),
+                row.getValue().getCount(),
+                row.getValue().getQuantity(),
+                row.getValue().getAmount()));
     }
     
-    /**
-     * Generate supplier report
-     */
-    public String generateSupplierReport() throws InventoryException {
-        StringBuilder report = new StringBuilder();
-        report.append("=".repeat(80)).append("\n");
-        report.append("SUPPLIER PERFORMANCE REPORT\n");
-        report.append("Generated: ").append(LocalDateTime.now().format(DATE_FORMAT)).append("\n");
-        report.append("=".repeat(80)).append("\n\n");
+    private void renderSupplierReport(Writer out, LocalDateTime generated, List<Supplier> suppliers)
+            throws IOException {
+        writeHeader(out, "SUPPLIER PERFORMANCE REPORT", generated);
         
-        List<Supplier> suppliers = supplierService.getAllSuppliers();
+        out.write(String.format("Total Suppliers: %d\n\n", suppliers.size()));
         
-        report.append(String.format("Total Suppliers: %d\n\n", suppliers.size()));
-        
-        report.append(String.format("%-10s %-25s %-15s %-10s %-12s %-10s\n",
+        out.write(String.format("%-10s %-25s %-15s %-10s %-12s %-10s\n",
                 "ID", "Name", "Contact", "Phone", "Orders", "Rating"));
-        report.append("-".repeat(80)).append("\n");
+        out.write("-".repeat(80) + "\n");
         
-        for (Supplier s : suppliers) {
-            report.append(String.format("%-10s %-25s %-15s %-10s %-12d %-10.2f\n",
-                    s.getSupplierId(),
-                    truncate(s.getName(), 25),
-                    truncate(s.getContactPerson(), 15),
-                    s.getPhone(),
-                    s.getTotalOrders(),
-                    s.getRating()));
-        }
-        
-        return report.toString();
+        writeRows(out, suppliers, s -> String.format("%-10s %-25s %-15s %-10s %-12d %-10.2f\n",
+                s.getSupplierId(),
+                truncate(s.getName(), 25),
+                truncate(s.getContactPerson(), 15),
+                s.getPhone(),
+                s.getTotalOrders(),
+                s.getRating()));
     }
     
-    /**
-     * Generate alert summary report
-     */
-    public String generateAlertReport() throws InventoryException {
-        StringBuilder report = new StringBuilder();
-        report.append("=".repeat(80)).append("\n");
-        report.append("ALERT SUMMARY REPORT\n");
-        report.append("Generated: ").append(LocalDateTime.now().format(DATE_FORMAT)).append("\n");
-        report.append("=".repeat(80)).append("\n\n");
-        
-        List<Alert> alerts = alertService.getUnresolvedAlerts();
+    private void renderAlertReport(Writer out, LocalDateTime generated, List<Alert> alerts) throws IOException {
+        writeHeader(out, "ALERT SUMMARY REPORT", generated);
         
-        report.append(String.format("Total Unresolved Alerts: %d\n\n", alerts.size()));
+        out.write(String.format("Total Unresolved Alerts: %d\n\n", alerts.size()));
         
-        report.append(String.format("%-12s %-15s %-12s %-40s\n",
+        out.write(String.format("%-12s %-15s %-12s %-40s\n",
                 "Alert ID", "Type", "Priority", "Message"));
-        report.append("-".repeat(80)).append("\n");
+        out.write("-".repeat(80) + "\n");
         
-        for (Alert a : alerts) {
-            report.append(String.format("%-12s %-15s %-12s %-40s\n",
-                    a.getAlertId(),
-                    a.getType(),
-                    a.getPriority(),
-                    truncate(a.getMessage(), 40)));
-        }
-        
-        return report.toString();
+        writeRows(out, alerts, a -> String.format("%-12s %-15s %-12s %-40s\n",
+                a.getAlertId(),
+                a.getType(),
+                a.getPriority(),
+                truncate(a.getMessage(), 40)));
+    }
+    
+    private void writeHeader(Writer out, String title, LocalDateTime generated) throws IOException {
+        out.write("=".repeat(80) + "\n");
+        out.write(title + "\n");
+        out.write("Generated: " + generated.format(DATE_FORMAT) + "\n");
+        out.write("=".repeat(80) + "\n\n");
     }
     
     /**
-     * Save report to file
+     * Write one line per item, in order, as each is formatted. Large lists
+     * are formatted in parallel a chunk at a time, since String.format
+     * dominates the cost of a big report; only one chunk of lines is ever
+     * held in memory.
      */
-    public void saveReportToFile(String reportContent, String filename) throws IOException {
-        String fullPath = "reports/" + filename;
-        FileHandler.writeTextToFile(fullPath, reportContent);
+    private <T> void writeRows(Writer out, List<T> items, Function<T, String> formatter) throws IOException {
+        writeRows(out, items.iterator(), items.size() >= PARALLEL_ROW_THRESHOLD, formatter);
+    }
+    
+    /**
+     * Write one line per item as the iterator yields it, e.g. straight from
+     * a store; with parallel set, a chunk of items is read then formatted
+     * in parallel
+     */
+    private <T> void writeRows(Writer out, Iterator<T> items, boolean parallel, Function<T, String> formatter)
+            throws IOException {
+        if (!parallel) {
+            while (items.hasNext()) {
+                out.write(formatter.apply(items.next()));
+            }
+            return;
+        }
+        List<T> chunk = new ArrayList<>(ROW_CHUNK_SIZE);
+        while (items.hasNext()) {
+            chunk.add(items.next());
+            if (chunk.size() == ROW_CHUNK_SIZE || !items.hasNext()) {
+                for (String line : chunk.parallelStream().map(formatter).collect(Collectors.toList())) {
+                    out.write(line);
+                }
+                chunk.clear();
+            }
+        }
+    }
+    
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warning("Could not delete %s: %s", path, e.getMessage());
+        }
     }
     
     /**
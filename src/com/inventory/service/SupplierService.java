@@ -6,6 +6,7 @@ import com.inventory.dao.impl.SupplierDAOImpl;
 import com.inventory.exception.InventoryException;
 import com.inventory.exception.ValidationException;
 import com.inventory.util.Validator;
+import com.inventory.util.ClassLogger;
 import com.inventory.util.Logger;
 import com.inventory.util.IDGenerator;
 import java.util.List;
@@ -14,6 +15,7 @@ import java.util.List;
  * Service class for supplier management business logic
  */
 public class SupplierService {
+    private static final ClassLogger logger = Logger.getLogger(SupplierService.class);
     private static SupplierService instance;
     private SupplierDAO supplierDAO;
     
@@ -47,7 +49,7 @@ public class SupplierService {
         
         // Save supplier
         supplierDAO.save(supplier);
-        Logger.info("Supplier added: " + name + " [ID: " + supplierId + "]");
+        logger.info("Supplier added: %s [ID: %s]", name, supplierId);
         
         return supplier;
     }
@@ -62,7 +64,7 @@ public class SupplierService {
         Validator.validateEmail(supplier.getEmail());
         
         supplierDAO.update(supplier);
-        Logger.info("Supplier updated: " + supplier.getSupplierId());
+        logger.info("Supplier updated: %s", supplier.getSupplierId());
     }
     
     /**
@@ -75,7 +77,7 @@ public class SupplierService {
         }
         
         supplierDAO.delete(supplierId);
-        Logger.info("Supplier deleted: " + supplierId);
+        logger.info("Supplier deleted: %s", supplierId);
     }
     
     /**
@@ -114,7 +116,9 @@ public class SupplierService {
         supplier.updateRating(rating);
         supplierDAO.update(supplier);
         
-        Logger.info(String.format("Updated rating for supplier %s to %.2f", supplierId, rating));
+        if (logger.isInfoEnabled()) {
+            logger.info("Updated rating for supplier %s to %.2f", supplierId, rating);
+        }
     }
     
     /**
@@ -125,7 +129,7 @@ public class SupplierService {
         supplier.incrementOrderCount();
         supplierDAO.update(supplier);
         
-        Logger.info("Incremented order count for supplier: " + supplierId);
+        logger.info("Incremented order count for supplier: %s", supplierId);
     }
     
     /**
@@ -136,7 +140,7 @@ public class SupplierService {
         supplier.setActive(false);
         supplierDAO.update(supplier);
         
-        Logger.info("Supplier deactivated: " + supplierId);
+        logger.info("Supplier deactivated: %s", supplierId);
     }
     
     /**
@@ -147,7 +151,7 @@ public class SupplierService {
         supplier.setActive(true);
         supplierDAO.update(supplier);
         
-        Logger.info("Supplier activated: " + supplierId);
+        logger.info("Supplier activated: %s", supplierId);
     }
     
     /**
@@ -0,0 +1,187 @@
+package com.inventory.service;
+
+import com.inventory.model.TopSeller;
+import com.inventory.model.Transaction;
+import com.inventory.dao.TransactionDAO;
+import com.inventory.dao.impl.TransactionDAOImpl;
+import com.inventory.exception.InventoryException;
+import com.inventory.util.ClassLogger;
+import com.inventory.util.Logger;
+import com.inventory.util.SpaceSavingSketch;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Service class for live approximate best-seller rankings.
+ * Units sold are tracked per window in a ring of time buckets, each a
+ * Space-Saving sketch of fixed capacity, so memory is bounded however many
+ * products and sales there are. A query merges the live buckets of its
+ * window. Windows slide one bucket at a time, so "last hour" covers the
+ * current 5-minute bucket and the 11 before it. Estimates are upper bounds
+ * and come with the maximum overestimate; a product selling more than
+ * 1/SKETCH_CAPACITY of a bucket's units is never missed.
+ * Warmed from the ledger's last week on startup.
+ */
+public class TopSellerService {
+    private static final ClassLogger logger = Logger.getLogger(TopSellerService.class);
+    private static final int SKETCH_CAPACITY = 256;
+    
+    private static TopSellerService instance;
+    private final Map<Window, WindowTracker> trackers = new EnumMap<>(Window.class);
+    
+    /**
+     * Query windows, each split into buckets of a fixed width
+     */
+    public enum Window {
+        LAST_HOUR(Duration.ofMinutes(5), 12),
+        LAST_DAY(Duration.ofHours(1), 24),
+        LAST_WEEK(Duration.ofHours(6), 28);
+        
+        private final Duration bucketWidth;
+        private final int buckets;
+        
+        Window(Duration bucketWidth, int buckets) {
+            this.bucketWidth = bucketWidth;
+            this.buckets = buckets;
+        }
+        
+        public Duration getLength() {
+            return bucketWidth.multipliedBy(buckets);
+        }
+    }
+    
+    /**
+     * Ring of per-bucket sketches for one window
+     */
+    private static class WindowTracker {
+        final long widthMillis;
+        final SpaceSavingSketch[] sketches;
+        final long[] bucketIds;
+        
+        WindowTracker(Window window) {
+            widthMillis = window.bucketWidth.toMillis();
+            sketches = new SpaceSavingSketch[window.buckets];
+            bucketIds = new long[window.buckets];
+            Arrays.fill(bucketIds, Long.MIN_VALUE);
+            for (int i = 0; i < sketches.length; i++) {
+                sketches[i] = new SpaceSavingSketch(SKETCH_CAPACITY);
+            }
+        }
+        
+        synchronized void offer(long timeMillis, long nowMillis, String productId, long quantity) {
+            long bucketId = Math.floorDiv(timeMillis, widthMillis);
+            if (!isLive(bucketId, nowMillis)) {
+                return;
+            }
+            int slot = slotOf(bucketId);
+            if (bucketIds[slot] != bucketId) {
+                sketches[slot].clear();
+                bucketIds[slot] = bucketId;
+            }
+            sketches[slot].offer(productId, quantity);
+        }
+        
+        synchronized List<TopSeller> top(long nowMillis, int n) {
+            List<SpaceSavingSketch> live = new ArrayList<>();
+            for (int slot = 0; slot < sketches.length; slot++) {
+                if (isLive(bucketIds[slot], nowMillis)) {
+                    live.add(sketches[slot]);
+                }
+            }
+            Set<String> candidates = new HashSet<>();
+            for (SpaceSavingSketch sketch : live) {
+                for (SpaceSavingSketch.Counter counter : sketch.counters()) {
+                    candidates.add(counter.getKey());
+                }
+            }
+            // A product missing from a bucket may still have sold up to that bucket's minimum
+            List<TopSeller> result = new ArrayList<>(candidates.size());
+            for (String productId : candidates) {
+                long upper = 0;
+                long lower = 0;
+                for (SpaceSavingSketch sketch : live) {
+                    SpaceSavingSketch.Counter counter = sketch.get(productId);
+                    if (counter != null) {
+                        upper += counter.getCount();
+                        lower += counter.getCount() - counter.getError();
+                    } else {
+                        upper += sketch.minCount();
+                    }
+                }
+                result.add(new TopSeller(productId, upper, upper - lower));
+            }
+            result.sort(Comparator.comparingLong(TopSeller::getQuantity).reversed()
+                    .thenComparing(TopSeller::getProductId));
+            return result.size() > n ? new ArrayList<>(result.subList(0, n)) : result;
+        }
+        
+        private boolean isLive(long bucketId, long nowMillis) {
+            long current = Math.floorDiv(nowMillis, widthMillis);
+            return bucketId <= current && bucketId > current - sketches.length;
+        }
+        
+        private int slotOf(long bucketId) {
+            return (int) Math.floorMod(bucketId, (long) sketches.length);
+        }
+    }
+    
+    private TopSellerService() {
+        for (Window window : Window.values()) {
+            trackers.put(window, new WindowTracker(window));
+        }
+    }
+    
+    public static synchronized TopSellerService getInstance() {
+        if (instance == null) {
+            instance = new TopSellerService();
+            instance.warmUp(TransactionDAOImpl.getInstance());
+        }
+        return instance;
+    }
+    
+    /**
+     * Count recorded transactions; only sales are tracked
+     */
+    public void record(Collection<Transaction> transactions) {
+        long now = System.currentTimeMillis();
+        for (Transaction t : transactions) {
+            if (t.getType() == Transaction.TransactionType.SALE && t.getTransactionDate() != null) {
+                long time = toMillis(t.getTransactionDate());
+                for (WindowTracker tracker : trackers.values()) {
+                    tracker.offer(time, now, t.getProductId(), t.getQuantity());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Get the n best-selling products by units in a window, best first
+     */
+    public List<TopSeller> getTopSellers(Window window, int n) {
+        return trackers.get(window).top(System.currentTimeMillis(), n);
+    }
+    
+    private void warmUp(TransactionDAO transactionDAO) {
+        LocalDateTime since = LocalDateTime.now().minus(Window.LAST_WEEK.getLength());
+        List<Transaction> batch = new ArrayList<>();
+        try {
+            transactionDAO.forEach(since, null, t -> {
+                batch.add(t);
+                if (batch.size() == 10000) {
+                    record(batch);
+                    batch.clear();
+                }
+                return true;
+            });
+            record(batch);
+        } catch (InventoryException e) {
+            logger.error("Failed to load recent sales for top sellers", e);
+        }
+    }
+    
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
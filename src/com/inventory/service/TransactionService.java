@@ -1,26 +1,43 @@
 package com.inventory.service;
 
 import com.inventory.model.Transaction;
+import com.inventory.model.Page;
+import com.inventory.model.TransactionTotals;
 import com.inventory.model.Product;
+import com.inventory.model.SaleRequest;
+import com.inventory.model.SaleResult;
+import com.inventory.dao.SalesRollupDAO;
 import com.inventory.dao.TransactionDAO;
+import com.inventory.dao.impl.SalesRollupDAOImpl;
 import com.inventory.dao.impl.TransactionDAOImpl;
 import com.inventory.exception.InventoryException;
+import com.inventory.util.ClassLogger;
 import com.inventory.util.Logger;
 import com.inventory.util.IDGenerator;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 
 /**
  * Service class for transaction management business logic
  */
 public class TransactionService {
+    private static final ClassLogger logger = Logger.getLogger(TransactionService.class);
+    private static final int ROLLUP_BATCH_SIZE = 10000;
     private static TransactionService instance;
     private TransactionDAO transactionDAO;
+    private SalesRollupDAO rollupDAO;
+    private TopSellerService topSellerService;
     private InventoryService inventoryService;
     private SupplierService supplierService;
     
     private TransactionService() {
         this.transactionDAO = TransactionDAOImpl.getInstance();
+        this.rollupDAO = SalesRollupDAOImpl.getInstance();
+        this.topSellerService = TopSellerService.getInstance();
         this.inventoryService = InventoryService.getInstance();
         this.supplierService = SupplierService.getInstance();
     }
@@ -28,39 +45,232 @@ public class TransactionService {
     public static synchronized TransactionService getInstance() {
         if (instance == null) {
             instance = new TransactionService();
+            instance.restoreRollups();
         }
         return instance;
     }
     
     /**
-     * Record a sale transaction
+     * Record a sale transaction.
+     * The stock check, stock reduction and ledger entry run under the
+     * product's stock lock, so concurrent sales of one product cannot
+     * oversell while sales of different products proceed in parallel.
      */
     public Transaction recordSale(String productId, int quantity, String performedBy, String remarks)
             throws InventoryException {
-        // Validate product exists and has sufficient stock
-        Product product = inventoryService.getProductById(productId);
-        
-        if (product.getQuantity() < quantity) {
-            throw new InventoryException("Insufficient stock for sale. Available: " + 
-                    product.getQuantity() + ", Requested: " + quantity);
+        Transaction transaction;
+        Lock lock = inventoryService.getStockLock(productId);
+        lock.lock();
+        try {
+            // Validate product exists and has sufficient stock
+            Product product = inventoryService.getProductById(productId);
+            
+            if (product.getQuantity() < quantity) {
+                throw new InventoryException("Insufficient stock for sale. Available: " + 
+                        product.getQuantity() + ", Requested: " + quantity);
+            }
+            
+            // Create transaction
+            String transactionId = IDGenerator.generateTransactionId();
+            transaction = new Transaction(transactionId, productId, 
+                    Transaction.TransactionType.SALE, quantity, product.getPrice(), 
+                    performedBy, remarks);
+            
+            // Update inventory
+            Product original = new Product(product);
+            inventoryService.reduceStock(productId, quantity);
+            
+            // Save transaction, writing the product back as it was if the ledger write fails
+            try {
+                transactionDAO.save(transaction);
+            } catch (InventoryException e) {
+                try {
+                    inventoryService.saveStockChanges(Collections.singletonList(original));
+                } catch (InventoryException restoreFailure) {
+                    e.addSuppressed(restoreFailure);
+                }
+                logger.warning("Sale %s rolled back: %s", transactionId, e.getMessage());
+                throw e;
+            }
+            updateRollups(Collections.singletonList(transaction));
+        } finally {
+            lock.unlock();
         }
         
-        // Create transaction
-        String transactionId = IDGenerator.generateTransactionId();
-        Transaction transaction = new Transaction(transactionId, productId, 
-                Transaction.TransactionType.SALE, quantity, product.getPrice(), 
-                performedBy, remarks);
+        if (logger.isInfoEnabled()) {
+            logger.info("Sale recorded: %s - Product: %s, Qty: %d, Amount: %.2f",
+                    transaction.getTransactionId(), productId, quantity, transaction.getTotalAmount());
+        }
         
-        // Update inventory
-        inventoryService.reduceStock(productId, quantity);
+        return transaction;
+    }
+    
+    /**
+     * Record a batch of sales, e.g. a register's end-of-shift upload.
+     * Lines are checked in order against the running stock of their product,
+     * so a line cannot sell stock taken by an earlier one. A rejected line
+     * does not affect the others. Accepted lines are persisted together:
+     * one product write, one ledger append and one alert write per batch.
+     * Stock changes are made on copies, so other threads see them only
+     * once the batch is saved.
+     */
+    public List<SaleResult> recordSales(List<SaleRequest> requests) throws InventoryException {
+        Set<String> productIds = new HashSet<>();
+        for (SaleRequest request : requests) {
+            if (request != null && request.getProductId() != null) {
+                productIds.add(request.getProductId());
+            }
+        }
         
-        // Save transaction
-        transactionDAO.save(transaction);
+        SaleResult[] results = new SaleResult[requests.size()];
+        List<Transaction> transactions = new ArrayList<>();
+        // Staged copies, and the products as they were before the batch
+        Map<String, Product> changed = new LinkedHashMap<>();
+        Map<String, Product> originals = new LinkedHashMap<>();
+        List<Lock> held = inventoryService.getStockLocks(productIds);
+        held.forEach(Lock::lock);
+        try {
+            for (int i = 0; i < requests.size(); i++) {
+                SaleRequest request = requests.get(i);
+                String error = null;
+                Product product = null;
+                if (request == null || request.getProductId() == null) {
+                    error = "Product ID is required";
+                } else if (request.getQuantity() <= 0) {
+                    error = "Quantity must be positive";
+                } else {
+                    product = changed.get(request.getProductId());
+                    if (product == null) {
+                        // Deletes take the stock lock, so this cannot vanish before the save
+                        Product original = inventoryService.findProduct(request.getProductId());
+                        if (original != null) {
+                            originals.put(original.getProductId(), original);
+                            product = new Product(original);
+                        }
+                    }
+                    if (product == null) {
+                        error = "Product not found: " + request.getProductId();
+                    } else if (product.getQuantity() < request.getQuantity()) {
+                        error = "Insufficient stock for sale. Available: " + 
+                                product.getQuantity() + ", Requested: " + request.getQuantity();
+                    }
+                }
+                if (error != null) {
+                    results[i] = SaleResult.failure(i + 1, request, error);
+                    continue;
+                }
+                
+                product.reduceStock(request.getQuantity());
+                changed.put(product.getProductId(), product);
+                Transaction transaction = new Transaction(IDGenerator.generateTransactionId(),
+                        product.getProductId(), Transaction.TransactionType.SALE,
+                        request.getQuantity(), product.getPrice(),
+                        request.getPerformedBy(), request.getRemarks());
+                transactions.add(transaction);
+                results[i] = SaleResult.success(i + 1, request, transaction);
+            }
+            
+            originals.keySet().retainAll(changed.keySet());
+            try {
+                inventoryService.saveStockChanges(changed.values());
+                transactionDAO.saveAll(transactions);
+            } catch (InventoryException e) {
+                // Put the stock back so stock and ledger stay consistent
+                try {
+                    inventoryService.saveStockChanges(originals.values());
+                } catch (InventoryException restoreFailure) {
+                    e.addSuppressed(restoreFailure);
+                }
+                logger.warning("Sale batch of %d lines rolled back: %s", transactions.size(), e.getMessage());
+                throw e;
+            }
+            updateRollups(transactions);
+        } finally {
+            held.forEach(Lock::unlock);
+        }
+        inventoryService.checkStockAlerts(changed.values());
         
-        Logger.info(String.format("Sale recorded: %s - Product: %s, Qty: %d, Amount: %.2f", 
-                transactionId, productId, quantity, transaction.getTotalAmount()));
+        if (logger.isInfoEnabled()) {
+            logger.info("Sale batch recorded: %d of %d lines, Amount: %.2f",
+                    transactions.size(), requests.size(),
+                    transactions.stream().mapToDouble(Transaction::getTotalAmount).sum());
+        }
         
-        return transaction;
+        return Arrays.asList(results);
+    }
+    
+    /**
+     * Add recorded sales to the rollups and top-seller windows. A rollup
+     * failure is only logged: the sales are already in the ledger, and the
+     * newest day is recounted on restart. Called with the sold products'
+     * stock locks held, so a report snapshot taken under all stock locks
+     * never sees a stock change whose sale is missing from the rollups.
+     */
+    private void updateRollups(List<Transaction> sales) {
+        topSellerService.record(sales);
+        try {
+            rollupDAO.record(sales);
+        } catch (InventoryException e) {
+            logger.warning("Could not update sales rollups: %s", e.getMessage());
+        }
+    }
+    
+    /**
+     * Bring the rollups up to date with the ledger: built from the whole
+     * history if they never were, otherwise the newest day is recounted
+     * in case the last run stopped between a sale and its rollup update.
+     */
+    private void restoreRollups() {
+        try {
+            if (!rollupDAO.isBuilt()) {
+                List<Transaction> sales = new ArrayList<>(ROLLUP_BATCH_SIZE);
+                long[] count = {0};
+                InventoryException[] failure = {null};
+                transactionDAO.forEach(t -> {
+                    if (t.getType() == Transaction.TransactionType.SALE) {
+                        sales.add(t);
+                        count[0]++;
+                        if (sales.size() == ROLLUP_BATCH_SIZE) {
+                            failure[0] = recordRollupBatch(sales);
+                        }
+                    }
+                    return failure[0] == null;
+                });
+                if (failure[0] != null) {
+                    throw failure[0];
+                }
+                rollupDAO.record(sales);
+                rollupDAO.markBuilt();
+                if (count[0] > 0 && logger.isInfoEnabled()) {
+                    logger.info("Built sales rollups from %d sales", count[0]);
+                }
+                return;
+            }
+            Page<Transaction> newest = transactionDAO.findPage(null, 1, true);
+            if (!newest.getItems().isEmpty()) {
+                LocalDate day = newest.getItems().get(0).getTransactionDate().toLocalDate();
+                List<Transaction> sales = new ArrayList<>();
+                transactionDAO.forEach(day.atStartOfDay(), day.atTime(LocalTime.MAX), t -> {
+                    if (t.getType() == Transaction.TransactionType.SALE) {
+                        sales.add(t);
+                    }
+                    return true;
+                });
+                rollupDAO.replaceDay(day, sales);
+            }
+        } catch (InventoryException e) {
+            logger.error("Failed to restore sales rollups", e);
+        }
+    }
+    
+    private InventoryException recordRollupBatch(List<Transaction> sales) {
+        try {
+            rollupDAO.record(sales);
+            sales.clear();
+            return null;
+        } catch (InventoryException e) {
+            return e;
+        }
     }
     
     /**
@@ -95,8 +305,10 @@ public class TransactionService {
         // Save transaction
         transactionDAO.save(transaction);
         
-        Logger.info(String.format("Purchase recorded: %s - Product: %s, Qty: %d, Amount: %.2f",
-                transactionId, productId, quantity, transaction.getTotalAmount()));
+        if (logger.isInfoEnabled()) {
+            logger.info("Purchase recorded: %s - Product: %s, Qty: %d, Amount: %.2f",
+                    transactionId, productId, quantity, transaction.getTotalAmount());
+        }
         
         return transaction;
     }
@@ -121,7 +333,7 @@ public class TransactionService {
         }
         
         transactionDAO.save(transaction);
-        Logger.info("Adjustment recorded: " + transactionId);
+        logger.info("Adjustment recorded: %s", transactionId);
         
         return transaction;
     }
@@ -144,6 +356,14 @@ public class TransactionService {
         return transactionDAO.findAll();
     }
     
+    /**
+     * Get one page of transactions by date; pass the previous page's cursor, or null to start
+     */
+    public Page<Transaction> getTransactionPage(String cursor, int limit, boolean newestFirst)
+            throws InventoryException {
+        return transactionDAO.findPage(cursor, limit, newestFirst);
+    }
+    
     /**
      * Get transactions by product
      */
@@ -168,31 +388,113 @@ public class TransactionService {
     }
     
     /**
-     * Calculate total sales amount
+     * Calculate total sales amount from the running totals
      */
     public double calculateTotalSales() throws InventoryException {
-        List<Transaction> sales = getTransactionsByType(Transaction.TransactionType.SALE);
-        return sales.stream()
-                .mapToDouble(Transaction::getTotalAmount)
-                .sum();
+        return transactionDAO.getTotals(Transaction.TransactionType.SALE).getAmount();
     }
     
     /**
-     * Calculate total sales for a date range
+     * Calculate total sales for a date range.
+     * Whole days come from the daily totals; only the partial days at either
+     * end of the range are read transaction by transaction.
      */
     public double calculateTotalSales(LocalDateTime start, LocalDateTime end) 
             throws InventoryException {
-        List<Transaction> transactions = getTransactionsByDateRange(start, end);
-        return transactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.SALE)
-                .mapToDouble(Transaction::getTotalAmount)
-                .sum();
+        if (start == null || end == null) {
+            throw new InventoryException("Date range cannot be null");
+        }
+        LocalDate firstDay = start.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? start.toLocalDate() : start.toLocalDate().plusDays(1);
+        LocalDate lastDay = end.toLocalTime().equals(LocalTime.MAX)
+                ? end.toLocalDate() : end.toLocalDate().minusDays(1);
+        if (firstDay.isAfter(lastDay)) {
+            return sumSales(start, end);
+        }
+        double total = transactionDAO.getTotals(Transaction.TransactionType.SALE, firstDay, lastDay).getAmount();
+        if (start.isBefore(firstDay.atStartOfDay())) {
+            total += sumSales(start, firstDay.atStartOfDay().minusNanos(1));
+        }
+        if (end.isAfter(lastDay.atTime(LocalTime.MAX))) {
+            total += sumSales(lastDay.plusDays(1).atStartOfDay(), end);
+        }
+        return total;
+    }
+    
+    private double sumSales(LocalDateTime start, LocalDateTime end) throws InventoryException {
+        double[] total = {0};
+        transactionDAO.forEach(start, end, t -> {
+            if (t.getType() == Transaction.TransactionType.SALE) {
+                total[0] += t.getTotalAmount();
+            }
+            return true;
+        });
+        return total[0];
+    }
+    
+    /**
+     * Get sales per product over a date range from the rollups: daily
+     * buckets for whole days, hourly buckets for whole hours at the ends
+     * of the range, and individual transactions only for the partial hours
+     * (or for days older than the hourly rollups)
+     */
+    public Map<String, TransactionTotals> getSalesByProduct(LocalDateTime start, LocalDateTime end)
+            throws InventoryException {
+        if (start == null || end == null) {
+            throw new InventoryException("Date range cannot be null");
+        }
+        Map<String, TransactionTotals> result = new HashMap<>();
+        addSalesByProduct(result, start, end, ChronoUnit.DAYS);
+        return result;
+    }
+    
+    private void addSalesByProduct(Map<String, TransactionTotals> result, LocalDateTime start, LocalDateTime end,
+                                   ChronoUnit unit) throws InventoryException {
+        if (start.isAfter(end)) {
+            return;
+        }
+        if (unit == ChronoUnit.HOURS && start.isBefore(rollupDAO.getHourlyHorizon())) {
+            unit = null;
+        }
+        if (unit == null) {
+            transactionDAO.forEach(start, end, t -> {
+                if (t.getType() == Transaction.TransactionType.SALE) {
+                    result.merge(t.getProductId(), TransactionTotals.EMPTY.plus(t), TransactionTotals::plus);
+                }
+                return true;
+            });
+            return;
+        }
+        ChronoUnit finer = unit == ChronoUnit.DAYS ? ChronoUnit.HOURS : null;
+        LocalDateTime first = start.truncatedTo(unit);
+        if (first.isBefore(start)) {
+            first = first.plus(1, unit);
+        }
+        // Exclusive end of the last whole unit in the range
+        LocalDateTime limit = end.plusNanos(1).truncatedTo(unit);
+        if (!first.isBefore(limit)) {
+            addSalesByProduct(result, start, end, finer);
+            return;
+        }
+        Map<String, TransactionTotals> whole = unit == ChronoUnit.DAYS
+                ? rollupDAO.getDailyTotals(first.toLocalDate(), limit.toLocalDate().minusDays(1))
+                : rollupDAO.getHourlyTotals(first, limit.minusHours(1));
+        whole.forEach((productId, totals) -> result.merge(productId, totals, TransactionTotals::plus));
+        addSalesByProduct(result, start, first.minusNanos(1), finer);
+        addSalesByProduct(result, limit, end, finer);
+    }
+    
+    /**
+     * Get the running count, quantity and amount of a transaction type
+     */
+    public TransactionTotals getTotals(Transaction.TransactionType type) throws InventoryException {
+        return transactionDAO.getTotals(type);
     }
     
     /**
      * Get transaction count
      */
     public int getTransactionCount() throws InventoryException {
-        return transactionDAO.findAll().size();
+        return (int) transactionDAO.count();
     }
 }
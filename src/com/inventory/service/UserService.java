@@ -7,6 +7,7 @@ import com.inventory.exception.AuthenticationException;
 import com.inventory.exception.InventoryException;
 import com.inventory.exception.ValidationException;
 import com.inventory.util.Validator;
+import com.inventory.util.ClassLogger;
 import com.inventory.util.Logger;
 import com.inventory.util.IDGenerator;
 import java.util.List;
@@ -15,6 +16,7 @@ import java.util.List;
  * Service class for user management and authentication
  */
 public class UserService {
+    private static final ClassLogger logger = Logger.getLogger(UserService.class);
     private static UserService instance;
     private UserDAO userDAO;
     private User currentUser;
@@ -38,17 +40,17 @@ public class UserService {
             User user = userDAO.findByUsername(username);
             
             if (user == null) {
-                Logger.warning("Failed login attempt for username: " + username);
+                logger.warning("Failed login attempt for username: %s", username);
                 throw new AuthenticationException("Invalid username or password");
             }
             
             if (!user.isActive()) {
-                Logger.warning("Login attempt for inactive user: " + username);
+                logger.warning("Login attempt for inactive user: %s", username);
                 throw new AuthenticationException("User account is inactive");
             }
             
             if (!user.verifyPassword(password)) {
-                Logger.warning("Failed login attempt for username: " + username);
+                logger.warning("Failed login attempt for username: %s", username);
                 throw new AuthenticationException("Invalid username or password");
             }
             
@@ -57,7 +59,7 @@ public class UserService {
             userDAO.update(user);
             
             currentUser = user;
-            Logger.info("User logged in: " + username + " [Role: " + user.getRole() + "]");
+            logger.info("User logged in: %s [Role: %s]", username, user.getRole());
             
             return user;
         } catch (InventoryException e) {
@@ -70,7 +72,7 @@ public class UserService {
      */
     public void logout() {
         if (currentUser != null) {
-            Logger.info("User logged out: " + currentUser.getUsername());
+            logger.info("User logged out: %s", currentUser.getUsername());
             currentUser = null;
         }
     }
@@ -111,7 +113,7 @@ public class UserService {
         
         // Save user
         userDAO.save(user);
-        Logger.info("User added: " + username + " [Role: " + role + "]");
+        logger.info("User added: %s [Role: %s]", username, role);
         
         return user;
     }
@@ -125,7 +127,7 @@ public class UserService {
         Validator.validateEmail(user.getEmail());
         
         userDAO.update(user);
-        Logger.info("User updated: " + user.getUserId());
+        logger.info("User updated: %s", user.getUserId());
     }
     
     /**
@@ -138,7 +140,7 @@ public class UserService {
         }
         
         userDAO.delete(userId);
-        Logger.info("User deleted: " + userId);
+        logger.info("User deleted: %s", userId);
     }
     
     /**
@@ -170,7 +172,7 @@ public class UserService {
         user.changePassword(oldPassword, newPassword);
         userDAO.update(user);
         
-        Logger.info("Password changed for user: " + userId);
+        logger.info("Password changed for user: %s", userId);
     }
     
     /**
@@ -180,7 +182,7 @@ public class UserService {
         User user = getUserById(userId);
         user.setActive(false);
         userDAO.update(user);
-        Logger.info("User deactivated: " + userId);
+        logger.info("User deactivated: %s", userId);
     }
     
     /**
@@ -190,7 +192,7 @@ public class UserService {
         User user = getUserById(userId);
         user.setActive(true);
         userDAO.update(user);
-        Logger.info("User activated: " + userId);
+        logger.info("User activated: %s", userId);
     }
     
     /**
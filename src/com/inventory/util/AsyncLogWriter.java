@@ -0,0 +1,188 @@
+package com.inventory.util;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appends log lines to a file from a background thread.
+ * Callers only put the line into a ring buffer; the writer thread drains
+ * it in batches into a {@link RollingLogFile}, flushing once per batch.
+ * When the buffer is full the overflow policy decides whether the
+ * caller waits for room or the line is dropped (and counted, with a note
+ * written to the log). close() writes out everything buffered.
+ */
+public class AsyncLogWriter {
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    
+    /**
+     * What append does when the buffer is full
+     */
+    public enum OverflowPolicy {
+        /** Wait for the writer to make room; nothing is lost */
+        BLOCK,
+        /** Discard the line and count it */
+        DROP;
+        
+        public static OverflowPolicy parse(String value) {
+            return "drop".equalsIgnoreCase(value) ? DROP : BLOCK;
+        }
+    }
+    
+    /**
+     * A line and the time it was logged, which decides its segment
+     */
+    private static final class Entry {
+        final LocalDateTime time;
+        final String line;
+        
+        Entry(LocalDateTime time, String line) {
+            this.time = time;
+            this.line = line;
+        }
+    }
+    
+    private final RollingLogFile file;
+    private final RingBuffer<Entry> buffer;
+    private final OverflowPolicy policy;
+    private final Thread thread;
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Object progress = new Object();
+    private volatile long written;
+    private volatile boolean sleeping;
+    private volatile boolean running = true;
+    private long droppedReported;
+    
+    public AsyncLogWriter(RollingLogFile file, int capacity, OverflowPolicy policy) {
+        this.file = file;
+        this.buffer = new RingBuffer<>(capacity);
+        this.policy = policy;
+        this.thread = new Thread(this::run, "log-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Queue a line logged at the given time for writing
+     */
+    public void append(LocalDateTime time, String line) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return;
+        }
+        Entry entry = new Entry(time, line);
+        while (!buffer.offer(entry)) {
+            // A dead writer never makes room, so waiting would hang the caller
+            if (policy == OverflowPolicy.DROP || !running || !thread.isAlive()) {
+                dropped.incrementAndGet();
+                return;
+            }
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        appended.incrementAndGet();
+        if (sleeping) {
+            LockSupport.unpark(thread);
+        }
+    }
+    
+    /**
+     * Wait until every line appended before this call is written to the file
+     */
+    public void flush() {
+        long target = appended.get();
+        synchronized (progress) {
+            while (written < target && thread.isAlive()) {
+                LockSupport.unpark(thread);
+                try {
+                    progress.wait(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Write out everything buffered, then stop the writer and close the file
+     */
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Get the number of lines discarded because the buffer was full or the
+     * writer was closed
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+    
+    private void run() {
+        try {
+            while (running || !buffer.isEmpty()) {
+                int count = writeBatch();
+                if (count > 0) {
+                    written += count;
+                    synchronized (progress) {
+                        progress.notifyAll();
+                    }
+                } else if (running) {
+                    sleeping = true;
+                    if (buffer.isEmpty() && running) {
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    }
+                    sleeping = false;
+                }
+            }
+        } finally {
+            closeQuietly();
+            synchronized (progress) {
+                progress.notifyAll();
+            }
+        }
+    }
+    
+    private int writeBatch() {
+        int count = 0;
+        Entry entry;
+        try {
+            while (count < MAX_BATCH && (entry = buffer.poll()) != null) {
+                // Counted once taken, so a failed write cannot leave flush() waiting
+                count++;
+                file.write(entry.time, entry.line);
+            }
+            long lost = dropped.get();
+            if (lost > droppedReported) {
+                file.write(LocalDateTime.now(), "[WARNING] " + (lost - droppedReported)
+                        + " log messages dropped: buffer full");
+                droppedReported = lost;
+            }
+            file.flush();
+        } catch (IOException | RuntimeException e) {
+            // Keep the writer alive; an Error still ends it, and append() then drops lines
+            System.err.println("Failed to write to log file: " + e);
+        }
+        return count;
+    }
+    
+    private void closeQuietly() {
+        try {
+            file.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close log file: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.inventory.util;
+
+import com.inventory.util.Logger.LogLevel;
+import java.util.function.Supplier;
+
+/**
+ * Logger for one class, obtained from {@link Logger#getLogger(Class)}.
+ * Every method first compares the level against this class's threshold,
+ * so a disabled call costs one branch: the format arguments and message
+ * supplier are only used when the message is logged. Primitive arguments
+ * are still boxed at the call site, so on hot paths wrap the call in
+ * isInfoEnabled() or similar.
+ *
+ * Formats use String.format syntax.
+ */
+public class ClassLogger {
+    private volatile int threshold;
+    
+    ClassLogger(LogLevel threshold) {
+        setThreshold(threshold);
+    }
+    
+    void setThreshold(LogLevel level) {
+        threshold = level.getSeverity();
+    }
+    
+    public boolean isEnabled(LogLevel level) {
+        return level.getSeverity() >= threshold;
+    }
+    
+    public boolean isDebugEnabled() {
+        return LogLevel.DEBUG.getSeverity() >= threshold;
+    }
+    
+    public boolean isInfoEnabled() {
+        return LogLevel.INFO.getSeverity() >= threshold;
+    }
+    
+    public void debug(String message) {
+        if (LogLevel.DEBUG.getSeverity() >= threshold) {
+            Logger.write(LogLevel.DEBUG, message);
+        }
+    }
+    
+    public void debug(Supplier<String> message) {
+        if (LogLevel.DEBUG.getSeverity() >= threshold) {
+            Logger.write(LogLevel.DEBUG, message.get());
+        }
+    }
+    
+    public void debug(String format, Object arg) {
+        if (LogLevel.DEBUG.getSeverity() >= threshold) {
+            Logger.write(LogLevel.DEBUG, String.format(format, arg));
+        }
+    }
+    
+    public void debug(String format, Object arg1, Object arg2) {
+        if (LogLevel.DEBUG.getSeverity() >= threshold) {
+            Logger.write(LogLevel.DEBUG, String.format(format, arg1, arg2));
+        }
+    }
+    
+    public void debug(String format, Object... args) {
+        if (LogLevel.DEBUG.getSeverity() >= threshold) {
+            Logger.write(LogLevel.DEBUG, String.format(format, args));
+        }
+    }
+    
+    public void info(String message) {
+        if (LogLevel.INFO.getSeverity() >= threshold) {
+            Logger.write(LogLevel.INFO, message);
+        }
+    }
+    
+    public void info(Supplier<String> message) {
+        if (LogLevel.INFO.getSeverity() >= threshold) {
+            Logger.write(LogLevel.INFO, message.get());
+        }
+    }
+    
+    public void info(String format, Object arg) {
+        if (LogLevel.INFO.getSeverity() >= threshold) {
+            Logger.write(LogLevel.INFO, String.format(format, arg));
+        }
+    }
+    
+    public void info(String format, Object arg1, Object arg2) {
+        if (LogLevel.INFO.getSeverity() >= threshold) {
+            Logger.write(LogLevel.INFO, String.format(format, arg1, arg2));
+        }
+    }
+    
+    public void info(String format, Object... args) {
+        if (LogLevel.INFO.getSeverity() >= threshold) {
+            Logger.write(LogLevel.INFO, String.format(format, args));
+        }
+    }
+    
+    public void warning(String message) {
+        if (LogLevel.WARNING.getSeverity() >= threshold) {
+            Logger.write(LogLevel.WARNING, message);
+        }
+    }
+    
+    public void warning(Supplier<String> message) {
+        if (LogLevel.WARNING.getSeverity() >= threshold) {
+            Logger.write(LogLevel.WARNING, message.get());
+        }
+    }
+    
+    public void warning(String format, Object arg) {
+        if (LogLevel.WARNING.getSeverity() >= threshold) {
+            Logger.write(LogLevel.WARNING, String.format(format, arg));
+        }
+    }
+    
+    public void warning(String format, Object arg1, Object arg2) {
+        if (LogLevel.WARNING.getSeverity() >= threshold) {
+            Logger.write(LogLevel.WARNING, String.format(format, arg1, arg2));
+        }
+    }
+    
+    public void warning(String format, Object... args) {
+        if (LogLevel.WARNING.getSeverity() >= threshold) {
+            Logger.write(LogLevel.WARNING, String.format(format, args));
+        }
+    }
+    
+    public void error(String message) {
+        if (LogLevel.ERROR.getSeverity() >= threshold) {
+            Logger.write(LogLevel.ERROR, message);
+        }
+    }
+    
+    public void error(String message, Exception e) {
+        if (LogLevel.ERROR.getSeverity() >= threshold) {
+            Logger.write(LogLevel.ERROR, message + " - " + e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+    
+    public void error(Supplier<String> message) {
+        if (LogLevel.ERROR.getSeverity() >= threshold) {
+            Logger.write(LogLevel.ERROR, message.get());
+        }
+    }
+    
+    public void error(String format, Object... args) {
+        if (LogLevel.ERROR.getSeverity() >= threshold) {
+            Logger.write(LogLevel.ERROR, String.format(format, args));
+        }
+    }
+}
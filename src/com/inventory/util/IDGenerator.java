@@ -2,6 +2,8 @@ package com.inventory.util;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -21,6 +23,36 @@ public class IDGenerator {
         return String.format("P%04d", productCounter.getAndIncrement());
     }
     
+    /**
+     * Reserve a block of consecutive product IDs in one step
+     */
+    public static synchronized List<String> generateProductIds(int count) {
+        int first = productCounter.getAndAdd(count);
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(String.format("P%04d", first + i));
+        }
+        return ids;
+    }
+    
+    /**
+     * Move the product counter past an ID already in use, so IDs handed
+     * out after a restart do not collide with saved products
+     */
+    public static synchronized void advanceProductCounter(String existingId) {
+        if (existingId == null || existingId.length() < 2 || existingId.charAt(0) != 'P') {
+            return;
+        }
+        try {
+            int used = Integer.parseInt(existingId.substring(1));
+            if (used >= productCounter.get()) {
+                productCounter.set(used + 1);
+            }
+        } catch (NumberFormatException e) {
+            // Not a generated ID; cannot collide
+        }
+    }
+    
     /**
      * Generate supplier ID
      */
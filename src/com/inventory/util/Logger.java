@@ -3,34 +3,176 @@ package com.inventory.util;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.function.Predicate;
 
 /**
- * Utility class for application logging
+ * Utility class for application logging.
+ * Entries are printed to the console on the calling thread, to keep them
+ * in order with the menus, and handed to a background writer for the log
+ * file, so callers never wait on disk I/O. Pending entries are written
+ * out when the JVM shuts down. The file is split into daily, size-capped
+ * segments that are compressed and expired in the background (see
+ * {@link RollingLogFile}).
+ *
+ * Messages below a level threshold are discarded. Thresholds are set per
+ * package, e.g. -Dinventory.log.level=INFO,com.inventory.dao=WARNING; the
+ * most specific package wins. Classes log through a {@link ClassLogger}
+ * from {@link #getLogger(Class)}, which checks its threshold before
+ * building anything; the static methods here use the default threshold.
  */
 public class Logger {
     private static final String LOG_FILE = "logs/application.log";
+    private static final String BUFFER_PROPERTY = "inventory.log.buffer";
+    private static final String OVERFLOW_PROPERTY = "inventory.log.overflow";
+    private static final String LEVEL_PROPERTY = "inventory.log.level";
+    private static final String SEGMENT_SIZE_PROPERTY = "inventory.log.segmentSize";
+    private static final String RETENTION_DAYS_PROPERTY = "inventory.log.retentionDays";
+    private static final String ARCHIVE_SIZE_PROPERTY = "inventory.log.archiveSize";
+    private static final int DEFAULT_BUFFER = 8192;
+    private static final long DEFAULT_SEGMENT_SIZE = 16L * 1024 * 1024;
+    private static final int DEFAULT_RETENTION_DAYS = 30;
+    private static final long DEFAULT_ARCHIVE_SIZE = 1024L * 1024 * 1024;
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final RollingLogFile file = new RollingLogFile(LOG_FILE,
+            Long.getLong(SEGMENT_SIZE_PROPERTY, DEFAULT_SEGMENT_SIZE),
+            Integer.getInteger(RETENTION_DAYS_PROPERTY, DEFAULT_RETENTION_DAYS),
+            Long.getLong(ARCHIVE_SIZE_PROPERTY, DEFAULT_ARCHIVE_SIZE));
+    private static final AsyncLogWriter writer = new AsyncLogWriter(file,
+            Integer.getInteger(BUFFER_PROPERTY, DEFAULT_BUFFER),
+            AsyncLogWriter.OverflowPolicy.parse(System.getProperty(OVERFLOW_PROPERTY)));
+    
+    private static final Map<String, LogLevel> packageLevels = new HashMap<>();
+    private static final Map<String, ClassLogger> loggers = new HashMap<>();
+    private static volatile LogLevel defaultLevel = LogLevel.INFO;
+    
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(writer::close, "log-shutdown"));
+        configure(System.getProperty(LEVEL_PROPERTY));
+    }
     
     public enum LogLevel {
-        INFO, WARNING, ERROR, DEBUG
+        INFO(1), WARNING(2), ERROR(3), DEBUG(0);
+        
+        private final int severity;
+        
+        LogLevel(int severity) {
+            this.severity = severity;
+        }
+        
+        /**
+         * Get the rank used against thresholds; DEBUG is lowest, ERROR highest
+         */
+        public int getSeverity() {
+            return severity;
+        }
+    }
+    
+    /**
+     * Get the logger for a class, which applies its package's threshold
+     */
+    public static synchronized ClassLogger getLogger(Class<?> type) {
+        return loggers.computeIfAbsent(type.getName(), name -> new ClassLogger(thresholdOf(name)));
+    }
+    
+    /**
+     * Set the threshold for a package and its subpackages; null restores
+     * the enclosing package's threshold
+     */
+    public static synchronized void setLevel(String packageName, LogLevel level) {
+        if (level == null) {
+            packageLevels.remove(packageName);
+        } else {
+            packageLevels.put(packageName, level);
+        }
+        loggers.forEach((name, logger) -> logger.setThreshold(thresholdOf(name)));
+    }
+    
+    /**
+     * Set the threshold for packages without one of their own
+     */
+    public static synchronized void setDefaultLevel(LogLevel level) {
+        defaultLevel = Objects.requireNonNull(level);
+        loggers.forEach((name, logger) -> logger.setThreshold(thresholdOf(name)));
+    }
+    
+    /**
+     * Apply thresholds written as "LEVEL,package=LEVEL,..."; an entry
+     * without a package sets the default
+     */
+    public static synchronized void configure(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return;
+        }
+        for (String entry : spec.split(",")) {
+            int eq = entry.indexOf('=');
+            try {
+                if (eq < 0) {
+                    setDefaultLevel(LogLevel.valueOf(entry.trim().toUpperCase()));
+                } else {
+                    setLevel(entry.substring(0, eq).trim(), LogLevel.valueOf(entry.substring(eq + 1).trim().toUpperCase()));
+                }
+            } catch (IllegalArgumentException e) {
+                System.err.println("Ignoring unknown log level setting: " + entry);
+            }
+        }
+    }
+    
+    public static boolean isEnabled(LogLevel level) {
+        return level.getSeverity() >= defaultLevel.getSeverity();
+    }
+    
+    private static LogLevel thresholdOf(String className) {
+        for (String name = className; ; name = name.substring(0, name.lastIndexOf('.'))) {
+            LogLevel level = packageLevels.get(name);
+            if (level != null) {
+                return level;
+            }
+            if (name.lastIndexOf('.') < 0) {
+                return defaultLevel;
+            }
+        }
     }
     
     /**
      * Log a message with specified level
      */
     public static void log(LogLevel level, String message) {
-        String timestamp = LocalDateTime.now().format(formatter);
+        if (isEnabled(level)) {
+            write(level, message);
+        }
+    }
+    
+    /**
+     * Log a message regardless of thresholds; callers have checked them
+     */
+    static void write(LogLevel level, String message) {
+        LocalDateTime now = LocalDateTime.now();
+        String timestamp = now.format(formatter);
         String logEntry = String.format("[%s] [%s] %s", timestamp, level, message);
         
         // Print to console
         System.out.println(logEntry);
         
-        // Write to file
-        try {
-            FileHandler.appendTextToFile(LOG_FILE, logEntry);
-        } catch (IOException e) {
-            System.err.println("Failed to write to log file: " + e.getMessage());
-        }
+        // Write to file in the background
+        writer.append(now, logEntry);
+    }
+    
+    /**
+     * Wait until everything logged so far is in the log file
+     */
+    public static void flush() {
+        writer.flush();
+    }
+    
+    /**
+     * Visit the logged lines of a period, reading only the log segments
+     * that overlap it; the action returns false to stop. Segments are read
+     * whole, so lines just outside the period may be included.
+     */
+    public static void search(LocalDateTime from, LocalDateTime to, Predicate<String> action) throws IOException {
+        flush();
+        file.forEachLine(from, to, action);
     }
     
     /**
@@ -73,7 +215,8 @@ public class Logger {
      * Log user action
      */
     public static void logUserAction(String username, String action) {
-        String message = String.format("User '%s' performed: %s", username, action);
-        info(message);
+        if (isEnabled(LogLevel.INFO)) {
+            write(LogLevel.INFO, String.format("User '%s' performed: %s", username, action));
+        }
     }
 }
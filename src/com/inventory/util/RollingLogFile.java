@@ -0,0 +1,383 @@
+package com.inventory.util;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Log file split into segments by size and by day.
+ * Lines go to the active file (e.g. logs/application.log). When it passes
+ * the size limit, or a line belongs to a later day, it is renamed to
+ * application-yyyy-MM-dd-N.log and gzipped on a background thread.
+ * Archives past the retention age or over the total size limit are
+ * deleted, oldest first.
+ *
+ * An index file (application.idx) lists every archived segment with the
+ * times of its first and last lines, so a search for a period reads only
+ * the segments that overlap it. Each index line is
+ * "fileName TAB firstTime TAB lastTime"; the active segment is listed
+ * with an empty last time.
+ *
+ * write() and flush() are for a single writer thread.
+ */
+public class RollingLogFile implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+    
+    private final Path activeFile;
+    private final Path indexFile;
+    private final String baseName;
+    private final String extension;
+    private final long maxSegmentBytes;
+    private final int retentionDays;
+    private final long maxArchiveBytes;
+    private final ExecutorService compressor;
+    // Archived segments, oldest first; guarded by itself
+    private final List<Segment> archives = new ArrayList<>();
+    private Writer out;
+    private long activeBytes;
+    // Earliest and latest line times in the active segment
+    private volatile LocalDateTime activeFirst;
+    private LocalDateTime activeLast;
+    
+    /**
+     * One archived segment and the times of its first and last lines
+     */
+    private static class Segment {
+        String fileName;
+        final LocalDateTime first;
+        final LocalDateTime last;
+        
+        Segment(String fileName, LocalDateTime first, LocalDateTime last) {
+            this.fileName = fileName;
+            this.first = first;
+            this.last = last;
+        }
+        
+        boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            return (to == null || !first.isAfter(to)) && (from == null || !last.isBefore(from));
+        }
+    }
+    
+    public RollingLogFile(String activeFile, long maxSegmentBytes, int retentionDays, long maxArchiveBytes) {
+        this.activeFile = Paths.get(activeFile).toAbsolutePath();
+        String name = this.activeFile.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        this.baseName = dot < 0 ? name : name.substring(0, dot);
+        this.extension = dot < 0 ? "" : name.substring(dot);
+        this.indexFile = this.activeFile.resolveSibling(baseName + ".idx");
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.retentionDays = retentionDays;
+        this.maxArchiveBytes = maxArchiveBytes;
+        this.compressor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "log-compressor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        recover();
+    }
+    
+    /**
+     * Append a line logged at the given time, rolling to a new segment first
+     * if the line would overflow the active one or starts a new day
+     */
+    public void write(LocalDateTime time, String line) throws IOException {
+        long bytes = utf8Length(line) + System.lineSeparator().length();
+        if (activeFirst != null && (activeBytes + bytes > maxSegmentBytes
+                || time.toLocalDate().isAfter(activeLast.toLocalDate()))) {
+            roll();
+        }
+        if (out == null) {
+            Files.createDirectories(activeFile.getParent());
+            FileChannel channel = FileChannel.open(activeFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE),
+                    BUFFER_SIZE);
+            activeBytes = channel.size();
+        }
+        if (activeFirst == null) {
+            activeFirst = time;
+            activeLast = time;
+            saveIndex();
+        } else if (time.isBefore(activeFirst)) {
+            // Lines from different threads can arrive slightly out of order
+            activeFirst = time;
+        } else if (time.isAfter(activeLast)) {
+            activeLast = time;
+        }
+        out.write(line);
+        out.write(System.lineSeparator());
+        activeBytes += bytes;
+    }
+    
+    public void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+    
+    /**
+     * Close the active segment; it is kept as the active file for next time
+     */
+    @Override
+    public void close() throws IOException {
+        compressor.shutdown();
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+    
+    /**
+     * Get the segment files holding lines from the given period, oldest
+     * first; null bounds are open
+     */
+    public List<Path> segments(LocalDateTime from, LocalDateTime to) {
+        List<Path> files = new ArrayList<>();
+        synchronized (archives) {
+            for (Segment segment : archives) {
+                if (segment.overlaps(from, to)) {
+                    files.add(activeFile.resolveSibling(segment.fileName));
+                }
+            }
+        }
+        LocalDateTime first = activeFirst;
+        if (first != null && (to == null || !first.isAfter(to))) {
+            files.add(activeFile);
+        }
+        return files;
+    }
+    
+    /**
+     * Visit the lines of every segment overlapping the period, oldest
+     * segment first; the action returns false to stop. Lines are not
+     * filtered by time, so the first and last segment may contain lines
+     * outside the period.
+     */
+    public void forEachLine(LocalDateTime from, LocalDateTime to, Predicate<String> action) throws IOException {
+        for (Path segment : segments(from, to)) {
+            if (!Files.exists(segment) && Files.exists(Paths.get(segment + GZIP_SUFFIX))) {
+                // Compressed since the listing was taken
+                segment = Paths.get(segment + GZIP_SUFFIX);
+            }
+            if (!Files.exists(segment)) {
+                continue;
+            }
+            InputStream in = Files.newInputStream(segment);
+            if (segment.toString().endsWith(GZIP_SUFFIX)) {
+                in = new GZIPInputStream(in, BUFFER_SIZE);
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8),
+                    BUFFER_SIZE)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!action.test(line)) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Get the UTF-8 encoded length of a string without encoding it
+     */
+    private static int utf8Length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isSurrogate(c)) {
+                // Each half of a pair counts for half of its 4 bytes
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+    
+    private void roll() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+        String day = activeLast.toLocalDate().format(DAY_FORMAT);
+        Path target;
+        int seq = 1;
+        do {
+            target = activeFile.resolveSibling(baseName + "-" + day + "-" + seq++ + extension);
+        } while (Files.exists(target) || Files.exists(Paths.get(target + GZIP_SUFFIX)));
+        Files.move(activeFile, target, StandardCopyOption.ATOMIC_MOVE);
+        
+        Segment segment = new Segment(target.getFileName().toString(), activeFirst, activeLast);
+        synchronized (archives) {
+            archives.add(segment);
+        }
+        activeFirst = null;
+        activeLast = null;
+        activeBytes = 0;
+        saveIndex();
+        compressor.execute(() -> compress(segment));
+    }
+    
+    /**
+     * Gzip an archived segment, then apply the retention limits
+     */
+    private void compress(Segment segment) {
+        Path source = activeFile.resolveSibling(segment.fileName);
+        Path target = Paths.get(source + GZIP_SUFFIX);
+        Path temp = Paths.get(target + ".tmp");
+        try {
+            try (InputStream in = Files.newInputStream(source);
+                 OutputStream gz = new GZIPOutputStream(Files.newOutputStream(temp), BUFFER_SIZE)) {
+                in.transferTo(gz);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            synchronized (archives) {
+                segment.fileName = target.getFileName().toString();
+            }
+            Files.delete(source);
+            saveIndex();
+        } catch (IOException e) {
+            System.err.println("Failed to compress log segment " + source + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // Left for the next attempt to overwrite
+            }
+        }
+        applyRetention();
+    }
+    
+    private void applyRetention() {
+        List<Segment> expired = new ArrayList<>();
+        synchronized (archives) {
+            LocalDateTime cutoff = LocalDate.now().minusDays(retentionDays).atStartOfDay();
+            long total = 0;
+            for (Segment segment : archives) {
+                total += sizeOf(segment);
+            }
+            Iterator<Segment> it = archives.iterator();
+            while (it.hasNext()) {
+                Segment segment = it.next();
+                if (!segment.last.isBefore(cutoff) && total <= maxArchiveBytes) {
+                    break;
+                }
+                total -= sizeOf(segment);
+                expired.add(segment);
+                it.remove();
+            }
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+        saveIndex();
+        for (Segment segment : expired) {
+            try {
+                Files.deleteIfExists(activeFile.resolveSibling(segment.fileName));
+            } catch (IOException e) {
+                System.err.println("Failed to delete log segment " + segment.fileName + ": " + e.getMessage());
+            }
+        }
+    }
+    
+    private long sizeOf(Segment segment) {
+        try {
+            return Files.size(activeFile.resolveSibling(segment.fileName));
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * Load the index left by the last run. An active file with content is
+     * rolled straight away, and segments that never got compressed are
+     * queued again.
+     */
+    private void recover() {
+        LocalDateTime previousFirst = null;
+        if (Files.exists(indexFile)) {
+            try {
+                for (String line : Files.readAllLines(indexFile, StandardCharsets.UTF_8)) {
+                    String[] fields = line.split("\t", -1);
+                    if (fields.length != 3) {
+                        continue;
+                    }
+                    LocalDateTime first = LocalDateTime.parse(fields[1]);
+                    String fileName = fields[0];
+                    if (!fields[2].isEmpty() && !Files.exists(activeFile.resolveSibling(fileName))) {
+                        // Compressed, but the run stopped before the index was saved
+                        fileName += GZIP_SUFFIX;
+                    }
+                    if (fields[2].isEmpty()) {
+                        previousFirst = first;
+                    } else if (Files.exists(activeFile.resolveSibling(fileName))) {
+                        archives.add(new Segment(fileName, first, LocalDateTime.parse(fields[2])));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Ignoring unreadable log index " + indexFile + ": " + e.getMessage());
+            }
+        }
+        archives.sort(Comparator.comparing((Segment s) -> s.first));
+        for (Segment segment : archives) {
+            if (!segment.fileName.endsWith(GZIP_SUFFIX)) {
+                compressor.execute(() -> compress(segment));
+            }
+        }
+        
+        try {
+            if (Files.exists(activeFile) && Files.size(activeFile) > 0) {
+                LocalDateTime modified = LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(Files.getLastModifiedTime(activeFile).toMillis()), ZoneId.systemDefault());
+                activeFirst = previousFirst != null && !previousFirst.isAfter(modified) ? previousFirst : modified;
+                activeLast = modified;
+                roll();
+            } else {
+                saveIndex();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to roll previous log file " + activeFile + ": " + e.getMessage());
+        }
+    }
+    
+    private void saveIndex() {
+        StringBuilder index = new StringBuilder();
+        synchronized (archives) {
+            for (Segment segment : archives) {
+                index.append(segment.fileName).append('\t').append(segment.first)
+                        .append('\t').append(segment.last).append('\n');
+            }
+            LocalDateTime first = activeFirst;
+            if (first != null) {
+                index.append(activeFile.getFileName()).append('\t').append(first).append("\t\n");
+            }
+            Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+            try {
+                Files.createDirectories(indexFile.getParent());
+                Files.write(temp, index.toString().getBytes(StandardCharsets.UTF_8));
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.err.println("Failed to save log index " + indexFile + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.inventory.util;
+
+import java.util.*;
+
+/**
+ * Space-Saving heavy-hitters summary over weighted keys.
+ * Tracks at most {@code capacity} keys. When a new key arrives and the
+ * summary is full, the key with the smallest count is evicted and the
+ * newcomer inherits its count as a possible overestimate. Every tracked
+ * count is an upper bound on the key's true weight, and count minus error
+ * is a lower bound; an untracked key weighs at most {@link #minCount()}.
+ * Any key heavier than total / capacity is guaranteed to be tracked.
+ * Not thread-safe.
+ */
+public class SpaceSavingSketch {
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final TreeSet<Counter> byCount = new TreeSet<>(
+            Comparator.comparingLong((Counter c) -> c.count).thenComparing(c -> c.key));
+    private long total;
+    
+    /**
+     * Estimated weight of one tracked key
+     */
+    public static class Counter {
+        private final String key;
+        private long count;
+        private long error;
+        
+        private Counter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+        
+        public String getKey() {
+            return key;
+        }
+        
+        /**
+         * Upper bound on the key's weight
+         */
+        public long getCount() {
+            return count;
+        }
+        
+        /**
+         * Maximum overestimate in the count
+         */
+        public long getError() {
+            return error;
+        }
+    }
+    
+    public SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+    
+    public void offer(String key, long weight) {
+        total += weight;
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = new Counter(key, 0, 0);
+            } else {
+                Counter evicted = byCount.pollFirst();
+                counters.remove(evicted.key);
+                counter = new Counter(key, evicted.count, evicted.count);
+            }
+            counters.put(key, counter);
+        } else {
+            byCount.remove(counter);
+        }
+        counter.count += weight;
+        byCount.add(counter);
+    }
+    
+    /**
+     * Get the tracked counter of a key, or null if it is not tracked
+     */
+    public Counter get(String key) {
+        return counters.get(key);
+    }
+    
+    /**
+     * Get all tracked counters, heaviest first
+     */
+    public List<Counter> counters() {
+        return new ArrayList<>(byCount.descendingSet());
+    }
+    
+    /**
+     * Get the most an untracked key can weigh
+     */
+    public long minCount() {
+        return counters.size() < capacity ? 0 : byCount.first().count;
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+    
+    public void clear() {
+        counters.clear();
+        byCount.clear();
+        total = 0;
+    }
+}
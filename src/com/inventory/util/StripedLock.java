@@ -0,0 +1,58 @@
+package com.inventory.util;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks shared out by key hash.
+ * Guards check-then-act sequences on a single record (e.g. "save unless it
+ * exists") without serializing writers of unrelated records.
+ */
+public class StripedLock {
+    private final ReentrantLock[] stripes;
+    
+    public StripedLock(int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+    
+    /**
+     * Get the lock guarding a key
+     */
+    public Lock get(String key) {
+        return stripes[indexOf(key)];
+    }
+    
+    /**
+     * Get the distinct locks guarding several keys, in a fixed global order.
+     * Acquiring them in the returned order cannot deadlock against another
+     * caller doing the same.
+     */
+    public List<Lock> getAll(Collection<String> keys) {
+        SortedSet<Integer> indexes = new TreeSet<>();
+        for (String key : keys) {
+            indexes.add(indexOf(key));
+        }
+        List<Lock> locks = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            locks.add(stripes[index]);
+        }
+        return locks;
+    }
+    
+    /**
+     * Get every lock, in the same global order as {@link #getAll(Collection)}
+     */
+    public List<Lock> getAll() {
+        return Collections.unmodifiableList(Arrays.asList(stripes));
+    }
+    
+    private int indexOf(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,94 @@
+package com.inventory.bench;
+
+import com.inventory.dao.codec.ProductCodec;
+import com.inventory.dao.codec.TransactionCodec;
+import com.inventory.dao.storage.RecordCodec;
+import com.inventory.dao.storage.SerializingCodec;
+import com.inventory.model.Product;
+import com.inventory.model.Transaction;
+import java.io.*;
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Compares the versioned binary codecs with the Java-serialization codec
+ * they replaced. Each record is encoded into its own buffer, as the record
+ * logs store them, and the driver reports bytes per record and encode and
+ * decode throughput for products and transactions. Nothing touches disk.
+ *
+ * Usage: CodecBenchmark [records] [rounds]
+ */
+public class CodecBenchmark {
+    /** Keeps decoded values observable so the JIT cannot drop the decode loop */
+    private static volatile long sink;
+    
+    public static void main(String[] args) throws IOException {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        
+        List<Product> products = build(records, i -> new Product(String.format("P%04d", i + 1),
+                "Product " + i, "Category " + (i % 20), 10.0 + i % 100, i % 500, 10,
+                String.format("S%04d", i % 50 + 1), "Description of product " + i));
+        List<Transaction> transactions = build(records, i -> new Transaction(String.format("T%06d", i + 1),
+                String.format("P%04d", i % 1000 + 1), Transaction.TransactionType.SALE,
+                1 + i % 10, 10.0 + i % 100, "admin", null));
+        
+        System.out.printf("%-12s %-13s %10s %14s %14s%n", "model", "codec", "bytes/rec", "encode rec/s", "decode rec/s");
+        run("Product", "binary", products, new ProductCodec(), rounds);
+        run("Product", "serialization", products, new SerializingCodec<>(Product.class), rounds);
+        run("Transaction", "binary", transactions, new TransactionCodec(), rounds);
+        run("Transaction", "serialization", transactions, new SerializingCodec<>(Transaction.class), rounds);
+    }
+    
+    private static <T> List<T> build(int count, IntFunction<T> factory) {
+        List<T> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(factory.apply(i));
+        }
+        return list;
+    }
+    
+    private static <T> void run(String model, String name, List<T> values, RecordCodec<T> codec, int rounds)
+            throws IOException {
+        byte[][] encoded = new byte[values.size()][];
+        long bestEncode = Long.MAX_VALUE;
+        long bestDecode = Long.MAX_VALUE;
+        long checksum = 0;
+        // The first round warms up the JIT; the best of the rest is reported
+        for (int round = 0; round <= rounds; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < encoded.length; i++) {
+                encoded[i] = encode(codec, values.get(i));
+            }
+            long encodeNanos = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            for (byte[] record : encoded) {
+                T value = codec.read(new DataInputStream(new ByteArrayInputStream(record)));
+                checksum += value.hashCode();
+            }
+            long decodeNanos = System.nanoTime() - start;
+            if (round > 0) {
+                bestEncode = Math.min(bestEncode, encodeNanos);
+                bestDecode = Math.min(bestDecode, decodeNanos);
+            }
+        }
+        long bytes = 0;
+        for (byte[] record : encoded) {
+            bytes += record.length;
+        }
+        System.out.printf("%-12s %-13s %10.1f %14.0f %14.0f%n", model, name,
+                (double) bytes / encoded.length,
+                encoded.length * 1e9 / bestEncode,
+                encoded.length * 1e9 / bestDecode);
+        sink += checksum;
+    }
+    
+    private static <T> byte[] encode(RecordCodec<T> codec, T value) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(buffer);
+        codec.write(value, out);
+        out.flush();
+        return buffer.toByteArray();
+    }
+}
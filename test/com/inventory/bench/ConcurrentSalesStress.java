@@ -0,0 +1,89 @@
+package com.inventory.bench;
+
+import com.inventory.exception.InventoryException;
+import com.inventory.model.Product;
+import com.inventory.service.InventoryService;
+import com.inventory.service.TransactionService;
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stress driver for concurrent stock updates on a single product.
+ * Threads alternately sell one unit and add one unit back, racing on the
+ * same stock lock; at the end the stored quantity must equal the starting
+ * quantity minus the units sold plus the units added, and the ledger must
+ * hold exactly one transaction per sale. Exits with status 1 on a mismatch.
+ *
+ * Usage: ConcurrentSalesStress [threads] [operationsPerThread]
+ * Run from an empty directory; the application stores under ./data.
+ */
+public class ConcurrentSalesStress {
+    private static final int INITIAL_QUANTITY = 1000;
+    
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        if (new File("data").exists()) {
+            System.err.println("Refusing to run: ./data already exists");
+            System.exit(2);
+        }
+        
+        InventoryService inventoryService = InventoryService.getInstance();
+        TransactionService transactionService = TransactionService.getInstance();
+        Product product = inventoryService.addProduct("Stress Widget", "Bench", 1.0,
+                INITIAL_QUANTITY, 0, null, "Concurrent sales stress target");
+        String productId = product.getProductId();
+        int startCount = transactionService.getTransactionCount();
+        
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < operations; i++) {
+                    if (i % 2 == 0) {
+                        try {
+                            transactionService.recordSale(productId, 1, "stress", null);
+                            sold.incrementAndGet();
+                        } catch (InventoryException e) {
+                            // Out of stock is a legal outcome under contention
+                            rejected.incrementAndGet();
+                        }
+                    } else {
+                        inventoryService.addStock(productId, 1);
+                        added.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - began);
+        pool.shutdown();
+        
+        int expectedQuantity = INITIAL_QUANTITY - sold.get() + added.get();
+        int actualQuantity = inventoryService.getProductById(productId).getQuantity();
+        int recorded = transactionService.getTransactionCount() - startCount;
+        System.out.printf("threads=%d ops=%d sold=%d added=%d rejected=%d elapsed=%dms%n",
+                threads, threads * operations, sold.get(), added.get(), rejected.get(), elapsedMillis);
+        System.out.printf("quantity expected=%d actual=%d%n", expectedQuantity, actualQuantity);
+        System.out.printf("transactions expected=%d actual=%d%n", sold.get(), recorded);
+        
+        if (actualQuantity != expectedQuantity || recorded != sold.get()) {
+            System.out.println("FAILED: lost or duplicated updates");
+            System.exit(1);
+        }
+        System.out.println("PASSED");
+        System.exit(0);
+    }
+}
@@ -0,0 +1,117 @@
+package com.inventory.bench;
+
+import com.inventory.dao.TransactionDAO;
+import com.inventory.dao.impl.TransactionDAOImpl;
+import com.inventory.model.Transaction;
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Measures per-product history queries against a large transaction store.
+ * The driver writes the requested number of sales spread evenly over a
+ * range of days, then times findByProductId, which follows the product
+ * index, against a full scan filtering every transaction by product, the
+ * way the lookup worked before the index existed.
+ *
+ * Each product is only sold during a run of consecutive days starting at
+ * a random day, as catalogues turn over; with activeDays equal to days
+ * every product sells throughout and the index can skip no partitions.
+ *
+ * Usage: ProductHistoryBenchmark [transactions] [products] [days] [activeDays] [queries]
+ * Run from an empty directory; the store is written under ./data.
+ */
+public class ProductHistoryBenchmark {
+    private static final int BATCH_SIZE = 10000;
+    private static final DateTimeFormatter ID_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    
+    public static void main(String[] args) throws Exception {
+        int transactions = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        int products = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+        int days = args.length > 2 ? Integer.parseInt(args[2]) : 365;
+        int activeDays = args.length > 3 ? Integer.parseInt(args[3]) : 14;
+        int queries = args.length > 4 ? Integer.parseInt(args[4]) : 200;
+        if (new File("data").exists()) {
+            System.err.println("Refusing to run: ./data already exists");
+            System.exit(2);
+        }
+        
+        TransactionDAO dao = TransactionDAOImpl.getInstance();
+        Random random = new Random(42);
+        int[] firstDay = new int[products];
+        for (int p = 0; p < products; p++) {
+            firstDay[p] = random.nextInt(Math.max(1, days - activeDays + 1));
+        }
+        
+        // Transactions are written in time order, as the application records them
+        LocalDateTime origin = LocalDateTime.now().minusDays(days).withNano(0);
+        long spacingMillis = (long) days * 86400000L / transactions;
+        List<List<Integer>> productsByDay = new ArrayList<>();
+        for (int d = 0; d < days; d++) {
+            productsByDay.add(new ArrayList<>());
+        }
+        for (int p = 0; p < products; p++) {
+            for (int d = firstDay[p]; d < Math.min(days, firstDay[p] + activeDays); d++) {
+                productsByDay.get(d).add(p);
+            }
+        }
+        long began = System.nanoTime();
+        List<Transaction> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < transactions; i++) {
+            LocalDateTime time = origin.plusNanos(i * spacingMillis * 1000000L);
+            List<Integer> live = productsByDay.get(Math.min(days - 1, (int) (i * spacingMillis / 86400000L)));
+            int product = live.isEmpty() ? random.nextInt(products) : live.get(random.nextInt(live.size()));
+            Transaction t = new Transaction(String.format("T%s-%08d", time.format(ID_TIME_FORMAT), i),
+                    String.format("P%06d", product + 1), Transaction.TransactionType.SALE,
+                    1 + random.nextInt(5), 9.99, "bench", null);
+            t.setTransactionDate(time);
+            batch.add(t);
+            if (batch.size() == BATCH_SIZE) {
+                dao.saveAll(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            dao.saveAll(batch);
+        }
+        System.out.printf("wrote %d transactions for %d products over %d days in %d ms%n",
+                transactions, products, days, (System.nanoTime() - began) / 1000000L);
+        
+        String[] targets = new String[queries];
+        for (int q = 0; q < queries; q++) {
+            targets[q] = String.format("P%06d", random.nextInt(products) + 1);
+        }
+        
+        long indexNanos = 0;
+        long found = 0;
+        for (String productId : targets) {
+            long start = System.nanoTime();
+            found += dao.findByProductId(productId).size();
+            indexNanos += System.nanoTime() - start;
+        }
+        System.out.printf("index: %d queries, %.1f rows/query, %.2f ms/query%n",
+                queries, (double) found / queries, indexNanos / 1e6 / queries);
+        
+        // A full scan costs the same for any product, so a few queries suffice
+        int scanQueries = Math.min(queries, 3);
+        long scanNanos = 0;
+        long scanned = 0;
+        for (int q = 0; q < scanQueries; q++) {
+            String productId = targets[q];
+            List<Transaction> result = new ArrayList<>();
+            long start = System.nanoTime();
+            dao.forEach(t -> {
+                if (productId.equals(t.getProductId())) {
+                    result.add(t);
+                }
+                return true;
+            });
+            scanNanos += System.nanoTime() - start;
+            scanned += result.size();
+        }
+        System.out.printf("scan:  %d queries, %.1f rows/query, %.2f ms/query%n",
+                scanQueries, (double) scanned / scanQueries, scanNanos / 1e6 / scanQueries);
+        System.exit(0);
+    }
+}
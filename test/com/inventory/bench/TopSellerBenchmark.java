@@ -0,0 +1,147 @@
+package com.inventory.bench;
+
+import com.inventory.dao.TransactionDAO;
+import com.inventory.dao.impl.TransactionDAOImpl;
+import com.inventory.model.TopSeller;
+import com.inventory.model.Transaction;
+import com.inventory.service.TopSellerService;
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the top-seller sketches with the exact computation over
+ * findByType(SALE). The driver stores sales from the last day with a
+ * Zipf-skewed choice of product, feeding each batch to the tracker as the
+ * application does, then reports query time, recall of the top n, and
+ * how far the sketch estimates are from the exact totals.
+ *
+ * Usage: TopSellerBenchmark [sales] [products] [n] [skew]
+ * Run from an empty directory; the store is written under ./data.
+ */
+public class TopSellerBenchmark {
+    private static final int BATCH_SIZE = 10000;
+    private static final int QUERY_ROUNDS = 5;
+    private static final DateTimeFormatter ID_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    
+    public static void main(String[] args) throws Exception {
+        int sales = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int products = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int n = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        double skew = args.length > 3 ? Double.parseDouble(args[3]) : 1.0;
+        if (new File("data").exists()) {
+            System.err.println("Refusing to run: ./data already exists");
+            System.exit(2);
+        }
+        
+        TransactionDAO dao = TransactionDAOImpl.getInstance();
+        TopSellerService tracker = TopSellerService.getInstance();
+        double[] cumulative = zipf(products, skew);
+        Random random = new Random(42);
+        
+        // Spread over the last 20 hours so every sale is inside the day window
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        LocalDateTime origin = now.minusHours(20);
+        long spacingMillis = 20L * 3600000L / sales;
+        long recordNanos = 0;
+        List<Transaction> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < sales; i++) {
+            LocalDateTime time = origin.plus(i * spacingMillis, ChronoUnit.MILLIS);
+            int product = Arrays.binarySearch(cumulative, random.nextDouble());
+            product = product < 0 ? -product - 1 : product;
+            Transaction t = new Transaction(String.format("T%s-%08d", time.format(ID_TIME_FORMAT), i),
+                    String.format("P%05d", Math.min(product, products - 1) + 1), Transaction.TransactionType.SALE,
+                    1 + random.nextInt(5), 9.99, "bench", null);
+            t.setTransactionDate(time);
+            batch.add(t);
+            if (batch.size() == BATCH_SIZE || i == sales - 1) {
+                dao.saveAll(batch);
+                long start = System.nanoTime();
+                tracker.record(batch);
+                recordNanos += System.nanoTime() - start;
+                batch.clear();
+            }
+        }
+        System.out.printf("stored %d sales of %d products (skew %.2f); sketch updates took %.1f ns/sale%n",
+                sales, products, skew, (double) recordNanos / sales);
+        
+        List<TopSeller> approximate = null;
+        long sketchNanos = Long.MAX_VALUE;
+        for (int round = 0; round < QUERY_ROUNDS; round++) {
+            long start = System.nanoTime();
+            approximate = tracker.getTopSellers(TopSellerService.Window.LAST_DAY, n);
+            sketchNanos = Math.min(sketchNanos, System.nanoTime() - start);
+        }
+        
+        Map<String, Long> exact = null;
+        long exactNanos = Long.MAX_VALUE;
+        LocalDateTime since = now.minus(TopSellerService.Window.LAST_DAY.getLength());
+        for (int round = 0; round < QUERY_ROUNDS; round++) {
+            long start = System.nanoTime();
+            exact = exactTotals(dao, since);
+            topOf(exact, n);
+            exactNanos = Math.min(exactNanos, System.nanoTime() - start);
+        }
+        List<String> exactTop = topOf(exact, n);
+        
+        Set<String> hits = approximate.stream().map(TopSeller::getProductId).collect(Collectors.toSet());
+        hits.retainAll(exactTop);
+        double worstError = 0;
+        int outsideBounds = 0;
+        System.out.printf("%-4s %-8s %10s %10s %8s%n", "rank", "product", "sketch", "exact", "bound");
+        for (int rank = 0; rank < approximate.size(); rank++) {
+            TopSeller seller = approximate.get(rank);
+            long actual = exact.getOrDefault(seller.getProductId(), 0L);
+            worstError = Math.max(worstError, Math.abs(seller.getQuantity() - actual) / (double) Math.max(1, actual));
+            if (actual > seller.getQuantity() || actual < seller.getQuantity() - seller.getError()) {
+                outsideBounds++;
+            }
+            System.out.printf("%-4d %-8s %10d %10d %8d%n", rank + 1, seller.getProductId(),
+                    seller.getQuantity(), actual, seller.getError());
+        }
+        System.out.printf("sketch query %.3f ms, exact query %.1f ms%n", sketchNanos / 1e6, exactNanos / 1e6);
+        System.out.printf("recall %d/%d, worst relative error %.4f%%, %d estimates outside their bounds%n",
+                hits.size(), exactTop.size(), worstError * 100, outsideBounds);
+        System.exit(0);
+    }
+    
+    /**
+     * Units sold per product since a time, from every stored sale
+     */
+    private static Map<String, Long> exactTotals(TransactionDAO dao, LocalDateTime since) throws Exception {
+        Map<String, Long> totals = new HashMap<>();
+        for (Transaction t : dao.findByType(Transaction.TransactionType.SALE)) {
+            if (!t.getTransactionDate().isBefore(since)) {
+                totals.merge(t.getProductId(), (long) t.getQuantity(), Long::sum);
+            }
+        }
+        return totals;
+    }
+    
+    private static List<String> topOf(Map<String, Long> totals, int n) {
+        return totals.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(n)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Cumulative distribution of a Zipf law over the given number of ranks
+     */
+    private static double[] zipf(int ranks, double skew) {
+        double[] cumulative = new double[ranks];
+        double sum = 0;
+        for (int i = 0; i < ranks; i++) {
+            sum += 1.0 / Math.pow(i + 1, skew);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < ranks; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+}